@@ -84,6 +84,23 @@ describe('ReactSurveyAppTests', () => {
     );
   });
 
+  test('testSignedInEmailUsedAsCreator', async () => {
+    localStorage.setItem('authEmail', 'signed-in@example.com');
+    axios.post.mockResolvedValueOnce({ data: {} });
+    window.alert = jest.fn();
+    render(<CreateSurvey />);
+    fireEvent.change(screen.getByPlaceholderText('Title'), { target: { value: 'Survey D' } });
+    fireEvent.change(screen.getByPlaceholderText('Question 1'), { target: { value: 'Q?' } });
+    fireEvent.click(screen.getByText('Create'));
+    await waitFor(() =>
+      expect(axios.post).toHaveBeenCalledWith(
+        expect.stringContaining('/create'),
+        expect.objectContaining({ creatorEmail: 'signed-in@example.com' })
+      )
+    );
+    localStorage.removeItem('authEmail');
+  });
+
   test('testEmptyQuestionShowsAlert', async () => {
     window.alert = jest.fn();
     render(<CreateSurvey />);
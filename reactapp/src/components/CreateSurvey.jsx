@@ -47,7 +47,8 @@ const CreateSurvey = () => {
     setLoading(true);
 
     try {
-      const email = localStorage.getItem('email') || 'default@example.com';
+      // Login and Register store the signed-in user's address as 'authEmail'
+      const email = localStorage.getItem('authEmail') || localStorage.getItem('email') || 'default@example.com';
       const surveyData = {
         title: title.trim(),
         description: description.trim(),
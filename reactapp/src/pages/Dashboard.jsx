@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { Link, useNavigate } from 'react-router-dom';
-import { getAllSurveys, getSurveyResponseCount } from '../services/api';
+import { getAllSurveys, getCreatorDashboard, getSurveyResponseCount } from '../services/api';
 import './Dashboard.css';
 
 const Dashboard = () => {
@@ -22,6 +22,24 @@ const Dashboard = () => {
   const fetchDashboardData = async () => {
     try {
       setLoading(true);
+      const email = localStorage.getItem('authEmail');
+      if (email) {
+        // Counts are maintained server-side, so this is a single request
+        const dashboard = await getCreatorDashboard(email);
+        const creatorSurveys = dashboard.surveys.map(survey => ({ ...survey, id: survey.surveyId }));
+        setSurveys(creatorSurveys);
+        setStats({
+          totalSurveys: dashboard.totalSurveys,
+          totalQuestions: dashboard.totalQuestions,
+          totalResponses: dashboard.totalResponses,
+          avgEngagement: dashboard.totalSurveys > 0 && dashboard.totalResponses > 0
+            ? Math.round((dashboard.totalResponses / dashboard.totalSurveys) * 10) / 10
+            : 0
+        });
+        setRecentSurveys(creatorSurveys.slice(0, 3));
+        return;
+      }
+
       const surveysData = await getAllSurveys();
       setSurveys(surveysData);
 
@@ -83,6 +101,7 @@ const Dashboard = () => {
   };
 
   const getQuestionCount = (survey) => {
+    if (typeof survey.questionCount === 'number') return survey.questionCount;
     try {
       const questions = JSON.parse(survey.questionsJson || '[]');
       return Array.isArray(questions) ? questions.length : 0;
@@ -111,6 +130,7 @@ const Dashboard = () => {
         return 'status-active';
       case 'DRAFT':
         return 'status-draft';
+      case 'CLOSED':
       case 'ARCHIVED':
         return 'status-archived';
       default:
@@ -48,6 +48,12 @@ export const getSurveyResponses = async (surveyId) => {
   return response.data;
 };
 
+// Get a creator's dashboard: their surveys with question and response counts in one call
+export const getCreatorDashboard = async (email) => {
+  const response = await axios.get(`${SURVEY_BASE}/creator/${encodeURIComponent(email)}/dashboard`, attachAuth());
+  return response.data;
+};
+
 // Get survey response count
 export const getSurveyResponseCount = async (surveyId) => {
   try {
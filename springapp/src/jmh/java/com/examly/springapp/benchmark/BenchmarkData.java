@@ -0,0 +1,49 @@
+package com.examly.springapp.benchmark;
+
+/**
+ * Representative payloads shared by the benchmarks: a 20 question survey mixing
+ * every question type, and a complete set of answers for it.
+ */
+final class BenchmarkData {
+
+    static final String QUESTIONS_JSON;
+    static final String ANSWERS_JSON;
+
+    static {
+        StringBuilder questions = new StringBuilder("[");
+        StringBuilder answers = new StringBuilder("{");
+        for (int i = 1; i <= 20; i++) {
+            if (i > 1) {
+                questions.append(',');
+                answers.append(',');
+            }
+            String id = "q" + i;
+            switch (i % 4) {
+                case 0:
+                    questions.append("{\"id\":\"").append(id).append("\",\"text\":\"How would you rate area ")
+                            .append(i).append("?\",\"type\":\"rating\",\"min\":1,\"max\":5,\"required\":true}");
+                    answers.append('"').append(id).append("\":").append(1 + i % 5);
+                    break;
+                case 1:
+                    questions.append("{\"id\":\"").append(id).append("\",\"text\":\"Which plan do you use?\",")
+                            .append("\"type\":\"single\",\"options\":[\"Free\",\"Starter\",\"Pro\",\"Enterprise\"]}");
+                    answers.append('"').append(id).append("\":\"Pro\"");
+                    break;
+                case 2:
+                    questions.append("{\"id\":\"").append(id).append("\",\"text\":\"Which features do you use?\",")
+                            .append("\"type\":\"multiple\",\"options\":[\"Reports\",\"Exports\",\"Alerts\",\"API\"]}");
+                    answers.append('"').append(id).append("\":[\"Reports\",\"API\"]");
+                    break;
+                default:
+                    questions.append("\"What could we improve about part ").append(i).append("?\"");
+                    answers.append('"').append(id).append("\":\"Faster load times and clearer onboarding emails\"");
+                    break;
+            }
+        }
+        QUESTIONS_JSON = questions.append(']').toString();
+        ANSWERS_JSON = answers.append('}').toString();
+    }
+
+    private BenchmarkData() {
+    }
+}
@@ -0,0 +1,119 @@
+package com.examly.springapp.benchmark;
+
+import com.examly.springapp.SpringBootEmpApplication;
+import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.service.SurveyService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test for survey.execution.mode: {@value #RESPONDENTS} respondents POST
+ * /{id}/respond at the same moment over real HTTP, against a Tomcat capped at
+ * {@value #TOMCAT_THREADS} threads. Platform mode queues requests for those
+ * threads. Virtual mode runs every request and queues only for database permits.
+ * Each invocation is one burst; failed or rejected requests are reported as the
+ * {@code failed} counter.
+ *
+ * Virtual mode needs Java 21. The build targets 17, so run the benchmarks on a
+ * Java 21 JVM with -Djmh.java=/path/to/jdk-21/bin/java; on older JVMs the
+ * virtual trial fails rather than measuring platform threads a second time.
+ * H2 answers in microseconds, so the gap is widest against a real database:
+ * run with -Dbenchmark.profile=mysql.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentRespondBenchmark {
+
+    private static final int RESPONDENTS = 2_000;
+    private static final int TOMCAT_THREADS = 32;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI respondUri;
+    private String body;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcome {
+        public long succeeded;
+        public long failed;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("virtual".equals(mode) && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual mode needs Java 21, running " + Runtime.version());
+        }
+        context = new SpringApplicationBuilder(SpringBootEmpApplication.class)
+                .profiles(System.getProperty("benchmark.profile", "test"))
+                .properties("server.port=0", "logging.level.root=WARN", "spring.jpa.show-sql=false",
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "server.tomcat.max-connections=" + (RESPONDENTS * 2),
+                        "survey.execution.mode=" + mode)
+                .run();
+        Long surveyId = context.getBean(SurveyService.class).createSurvey(new SurveyEntry("Load", "",
+                BenchmarkData.QUESTIONS_JSON, "creator@example.com")).getId();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        respondUri = URI.create("http://localhost:" + port + "/api/surveys/" + surveyId + "/respond");
+        body = "{\"answersJson\":" + quote(BenchmarkData.ANSWERS_JSON) + ",\"respondentEmail\":\"load@example.com\"}";
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int burst(Outcome outcome) {
+        List<CompletableFuture<HttpResponse<Void>>> requests = new ArrayList<>(RESPONDENTS);
+        for (int i = 0; i < RESPONDENTS; i++) {
+            HttpRequest request = HttpRequest.newBuilder(respondUri)
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            requests.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        int created = 0;
+        for (CompletableFuture<HttpResponse<Void>> request : requests) {
+            try {
+                if (request.join().statusCode() == 201) {
+                    created++;
+                }
+            } catch (RuntimeException e) {
+                // Connection refused or timed out: counted as failed below
+            }
+        }
+        outcome.succeeded += created;
+        outcome.failed += RESPONDENTS - created;
+        return created;
+    }
+
+    private static String quote(String json) {
+        return "\"" + json.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
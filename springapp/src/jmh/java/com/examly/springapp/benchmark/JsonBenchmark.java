@@ -0,0 +1,74 @@
+package com.examly.springapp.benchmark;
+
+import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.model.SurveySchema;
+import com.examly.springapp.service.AnswerValidator;
+import com.examly.springapp.service.SurveySchemaService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * questionsJson validation on survey creation and answersJson parsing on submit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private SurveySchemaService schemaService;
+    private AnswerValidator answerValidator;
+    private SurveySchema schema;
+    private SurveyEntry survey;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        schemaService = new SurveySchemaService();
+        ReflectionTestUtils.setField(schemaService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(schemaService, "cacheSize", 1000L);
+        ReflectionTestUtils.invokeMethod(schemaService, "init");
+        answerValidator = new AnswerValidator(objectMapper);
+        schema = schemaService.compile(BenchmarkData.QUESTIONS_JSON);
+
+        survey = new SurveyEntry("Benchmark", "", BenchmarkData.QUESTIONS_JSON, "owner@example.com");
+        survey.setId(1L);
+        survey.setVersion(0L);
+        schemaService.getSchema(survey);
+    }
+
+    /** What createSurvey used to do: a new ObjectMapper per request, only to check for an array. */
+    @Benchmark
+    public boolean questionsCheckWithNewObjectMapper() throws Exception {
+        return new ObjectMapper().readTree(BenchmarkData.QUESTIONS_JSON).isArray();
+    }
+
+    @Benchmark
+    public SurveySchema compileQuestions() {
+        return schemaService.compile(BenchmarkData.QUESTIONS_JSON);
+    }
+
+    /** What submit and aggregation pay per response once the schema is cached. */
+    @Benchmark
+    public SurveySchema cachedSchemaLookup() {
+        return schemaService.getSchema(survey);
+    }
+
+    @Benchmark
+    public JsonNode parseAnswersTree() throws Exception {
+        return objectMapper.readTree(BenchmarkData.ANSWERS_JSON);
+    }
+
+    @Benchmark
+    public SurveySchema validateAnswersStreaming() {
+        answerValidator.validate(schema, BenchmarkData.ANSWERS_JSON);
+        return schema;
+    }
+}
@@ -0,0 +1,35 @@
+package com.examly.springapp.benchmark;
+
+import com.examly.springapp.security.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue on login/register and token verification on every authenticated request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        token = JwtUtil.generateToken("benchmark@example.com");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return JwtUtil.generateToken("benchmark@example.com");
+    }
+
+    @Benchmark
+    public String validateAndGetSubject() {
+        return JwtUtil.validateAndGetSubject(token);
+    }
+}
@@ -0,0 +1,75 @@
+package com.examly.springapp.benchmark;
+
+import com.examly.springapp.SpringBootEmpApplication;
+import com.examly.springapp.dto.ImportReport;
+import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.model.SurveyResponse;
+import com.examly.springapp.service.BulkImportService;
+import com.examly.springapp.service.SurveyService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing {@value #ROWS} responses one per transaction, the way POST /{id}/respond
+ * does, against a single NDJSON bulk import of the same rows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseImportBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private SurveyService surveyService;
+    private BulkImportService importService;
+    private Long surveyId;
+    private byte[] ndjson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(SpringBootEmpApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.root=WARN", "spring.jpa.show-sql=false")
+                .run();
+        surveyService = context.getBean(SurveyService.class);
+        importService = context.getBean(BulkImportService.class);
+        surveyId = surveyService.createSurvey(new SurveyEntry("Import", "", BenchmarkData.QUESTIONS_JSON,
+                "creator@example.com")).getId();
+
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < ROWS; i++) {
+            lines.append("{\"type\":\"response\",\"surveyId\":").append(surveyId)
+                    .append(",\"respondentEmail\":\"r").append(i).append("@example.com\",\"answers\":")
+                    .append(BenchmarkData.ANSWERS_JSON).append("}\n");
+        }
+        ndjson = lines.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int perEntitySubmit() {
+        for (int i = 0; i < ROWS; i++) {
+            surveyService.validateResponse(surveyId, BenchmarkData.ANSWERS_JSON);
+            surveyService.submitResponse(new SurveyResponse(surveyId, BenchmarkData.ANSWERS_JSON, "r" + i + "@example.com"));
+        }
+        return ROWS;
+    }
+
+    @Benchmark
+    public ImportReport bulkImport() throws Exception {
+        return importService.importNdjson(new ByteArrayInputStream(ndjson));
+    }
+}
@@ -0,0 +1,83 @@
+package com.examly.springapp.benchmark;
+
+import com.examly.springapp.SpringBootEmpApplication;
+import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.repository.SurveyRepository;
+import com.examly.springapp.service.SurveyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorted paging through SurveyService against the in-memory H2 database, and
+ * serialization of the resulting Page the way the paginated endpoints return it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SurveyServiceBenchmark {
+
+    private static final int SURVEYS = 2_000;
+    private static final int PAGE_SIZE = 20;
+
+    private ConfigurableApplicationContext context;
+    private SurveyService surveyService;
+    private ObjectMapper objectMapper;
+    private Page<SurveyEntry> firstPage;
+    private int page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(SpringBootEmpApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.root=WARN", "spring.jpa.show-sql=false")
+                .run();
+        surveyService = context.getBean(SurveyService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        List<SurveyEntry> surveys = new ArrayList<>(SURVEYS);
+        for (int i = 0; i < SURVEYS; i++) {
+            surveys.add(new SurveyEntry("Survey " + i, "Benchmark survey number " + i,
+                    BenchmarkData.QUESTIONS_JSON, "creator" + (i % 50) + "@example.com"));
+        }
+        context.getBean(SurveyRepository.class).saveAll(surveys);
+        firstPage = surveyService.getAllSurveysPaginated(0, PAGE_SIZE, "id", "asc");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<SurveyEntry> pageSortedById() {
+        page = (page + 1) % (SURVEYS / PAGE_SIZE);
+        return surveyService.getAllSurveysPaginated(page, PAGE_SIZE, "id", "asc");
+    }
+
+    @Benchmark
+    public Page<SurveyEntry> pageSortedByTitleDesc() {
+        page = (page + 1) % (SURVEYS / PAGE_SIZE);
+        return surveyService.getAllSurveysPaginated(page, PAGE_SIZE, "title", "desc");
+    }
+
+    @Benchmark
+    public Page<SurveyEntry> pageByCreator() {
+        page = (page + 1) % 50;
+        return surveyService.getSurveysByCreatorPaginated("creator" + page + "@example.com", 0, PAGE_SIZE, "id", "asc");
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(firstPage);
+    }
+}
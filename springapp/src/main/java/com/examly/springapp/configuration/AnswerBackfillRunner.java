@@ -0,0 +1,24 @@
+package com.examly.springapp.configuration;
+
+import com.examly.springapp.service.AnswerStoreService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills survey_answer for responses stored before the table existed, e.g.
+ * {@code java -jar springapp.jar --survey.answers.backfill=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "survey.answers.backfill", havingValue = "true")
+public class AnswerBackfillRunner implements CommandLineRunner {
+
+    @Autowired
+    private AnswerStoreService answerStore;
+
+    @Override
+    public void run(String... args) {
+        answerStore.backfill();
+    }
+}
@@ -0,0 +1,48 @@
+package com.examly.springapp.configuration;
+
+import com.examly.springapp.dto.ImportReport;
+import com.examly.springapp.service.BulkImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Imports an NDJSON file at startup, e.g.
+ * {@code java -jar springapp.jar --survey.import.file=/data/history.ndjson}.
+ */
+@Component
+@ConditionalOnProperty(name = "survey.import.file")
+public class BulkImportRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportRunner.class);
+
+    @Autowired
+    private BulkImportService importService;
+
+    @Value("${survey.import.file}")
+    private String file;
+
+    @Override
+    public void run(String... args) throws Exception {
+        logger.info("Importing {}", file);
+        try (InputStream in = Files.newInputStream(Paths.get(file))) {
+            ImportReport report = importService.importNdjson(in);
+            logger.info("Imported {} surveys and {} responses from {} lines ({} rows/s)",
+                    report.surveysImported, report.responsesImported, report.lines, Math.round(report.rowsPerSecond));
+            for (ImportReport.LineError error : report.errors) {
+                logger.warn("Line {}: {}", error.line, error.message);
+            }
+            if (report.failedLines > report.errors.size()) {
+                logger.warn("... and {} more failed lines", report.failedLines - report.errors.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.examly.springapp.configuration;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * survey.execution.mode=virtual: Tomcat runs each request on its own virtual
+ * thread, so handlers and their repository calls no longer hold one of
+ * server.tomcat.threads.max platform threads while they wait on JDBC. The
+ * DataSource is wrapped in a PermitDataSource so the requests that are no
+ * longer limited by Tomcat queue for database permits instead.
+ *
+ * Needs Java 21 at runtime. The build and its tests run on Java 17, where
+ * requests stay on the platform thread pool, with a warning, and only the
+ * permits apply; the virtual-thread path is only exercised on a Java 21 JVM.
+ */
+@Configuration
+@ConditionalOnProperty(name = "survey.execution.mode", havingValue = "virtual")
+public class ExecutionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionConfig.class);
+
+    private final Optional<ExecutorService> requestExecutor = VirtualThreads.newPerTaskExecutor();
+
+    /** Whether requests actually run on virtual threads, rather than falling back to platform threads. */
+    public boolean usesVirtualThreads() {
+        return requestExecutor.isPresent();
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadRequests() {
+        return protocolHandler -> {
+            if (requestExecutor.isPresent()) {
+                protocolHandler.setExecutor(requestExecutor.get());
+                logger.info("Handling requests on virtual threads");
+            } else {
+                logger.warn("survey.execution.mode=virtual needs Java 21 (running {}); requests stay on platform threads",
+                        System.getProperty("java.version"));
+            }
+        };
+    }
+
+    // Static: a BeanPostProcessor must not wait on this configuration's own dependencies
+    @Bean
+    public static BeanPostProcessor databasePermits(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof PermitDataSource) {
+                    return bean;
+                }
+                int permits = environment.getProperty("survey.db.permits", Integer.class, 0);
+                if (permits <= 0) {
+                    // Leave one pooled connection for nested (id generator) connections
+                    int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                    permits = Math.max(1, poolSize - 1);
+                }
+                Duration timeout = environment.getProperty("survey.db.permit-timeout", Duration.class, Duration.ofSeconds(30));
+                logger.info("Database permits: {} (timeout {})", permits, timeout);
+                return new PermitDataSource((DataSource) bean, permits, timeout);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder databasePermitMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof PermitDataSource) {
+                ((PermitDataSource) dataSource).bindTo(registry);
+            }
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        requestExecutor.ifPresent(ExecutorService::shutdown);
+    }
+}
@@ -0,0 +1,40 @@
+package com.examly.springapp.configuration;
+
+import com.examly.springapp.metrics.RequestStatementFilter;
+import com.examly.springapp.metrics.StatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Metrics not provided by Actuator itself. Endpoint latency (http.server.requests),
+ * repository timers (spring.data.repository.invocations) and connection pool wait
+ * (hikaricp.connections.acquire) are auto-configured; this adds SQL statements per
+ * request and the per-request statement budget. Everything is scraped from
+ * /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestStatementFilter> requestStatementFilter(
+            StatementCounter statementCounter,
+            MeterRegistry meterRegistry,
+            @Value("${survey.sql.request-budget:50}") int budget,
+            @Value("${survey.sql.repeated-statement-threshold:20}") int repeatThreshold) {
+        FilterRegistrationBean<RequestStatementFilter> registration = new FilterRegistrationBean<>(
+                new RequestStatementFilter(statementCounter, meterRegistry, budget, repeatThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
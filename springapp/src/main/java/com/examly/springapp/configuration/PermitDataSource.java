@@ -0,0 +1,178 @@
+package com.examly.springapp.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits at most {@code permits} connections at a time. Callers wait in a fair
+ * semaphore, held until the connection is closed. With virtual threads there is
+ * no Tomcat thread limit in front of the database, so thousands of requests
+ * can queue here cheaply. Without it they pile into the pool, fail after its
+ * connection timeout, and pin carrier threads inside the driver.
+ *
+ * A thread's permit covers every connection it opens until the last is
+ * closed. Hibernate opens a second connection mid-transaction for table-based
+ * id generators, and waiting for a second permit there would deadlock once all
+ * permits are taken. Those nested connections come from the pool's spare
+ * capacity, which is why the default permit count is one below the pool size.
+ *
+ * Waits longer than {@code timeout} fail with SQLTransientConnectionException,
+ * like a pool timeout. Once bound, wait times are recorded as {@code db.permit.wait}
+ * and queued callers as {@code db.permit.waiting}.
+ */
+public class PermitDataSource extends DelegatingDataSource implements MeterBinder {
+
+    private final Semaphore permits;
+    private final int capacity;
+    private final long timeoutNanos;
+    private final ThreadLocal<Holder> holders = new ThreadLocal<>();
+    private volatile Timer waitTimer;
+
+    public PermitDataSource(DataSource target, int permits, Duration timeout) {
+        super(target);
+        this.permits = new Semaphore(permits, true);
+        this.capacity = permits;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    // Bound after creation: the registry's own binders need this DataSource first
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        waitTimer = Timer.builder("db.permit.wait").register(registry);
+        registry.gauge("db.permit.waiting", permits, Semaphore::getQueueLength);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Holder holder = hold();
+        try {
+            return guard(super.getConnection(), holder);
+        } catch (SQLException | RuntimeException e) {
+            holder.closed();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Holder holder = hold();
+        try {
+            return guard(super.getConnection(username, password), holder);
+        } catch (SQLException | RuntimeException e) {
+            holder.closed();
+            throw e;
+        }
+    }
+
+    // Joins the calling thread's permit if it still has a connection open, else takes a new one
+    private Holder hold() throws SQLException {
+        Holder holder = holders.get();
+        if (holder != null && holder.join()) {
+            return holder;
+        }
+        acquire();
+        holder = new Holder();
+        holders.set(holder);
+        return holder;
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("Timed out after "
+                        + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms waiting for a database permit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a database permit", e);
+        } finally {
+            Timer timer = waitTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    // Each connection counts down on its first close(); closing twice must not count twice
+    private Connection guard(Connection connection, Holder holder) {
+        AtomicBoolean released = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                try {
+                    connection.close();
+                } finally {
+                    if (released.compareAndSet(false, true)) {
+                        holder.closed();
+                    }
+                }
+                return null;
+            }
+            if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            return invoke(connection, method, args);
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+    }
+
+    /** One permit and the connections opened under it; may be closed from another thread. */
+    private final class Holder {
+
+        private final AtomicInteger open = new AtomicInteger(1);
+
+        boolean join() {
+            while (true) {
+                int current = open.get();
+                if (current == 0) {
+                    return false;
+                }
+                if (open.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void closed() {
+            if (open.decrementAndGet() == 0) {
+                permits.release();
+            }
+        }
+    }
+
+    private static Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.examly.springapp.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on {@code @Scheduled} methods: LiveSummaryPublisher's push loop and
+ * ResponseCountService's reconcile pass.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,33 @@
+package com.examly.springapp.configuration;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual threads without compiling against Java 21: the build targets 17, so
+ * the executor is looked up reflectively and is empty on JVMs that lack it (or
+ * that have it only as a disabled preview).
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static Optional<ExecutorService> newPerTaskExecutor() {
+        try {
+            return Optional.of((ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return Optional.empty();
+        } catch (InvocationTargetException e) {
+            // Java 19/20 without --enable-preview
+            if (e.getCause() instanceof UnsupportedOperationException) {
+                return Optional.empty();
+            }
+            throw new IllegalStateException("Could not create virtual thread executor", e.getCause());
+        }
+    }
+}
@@ -10,6 +10,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @CrossOrigin(origins = "*")
 @RequestMapping("/api/auth")
@@ -21,19 +23,23 @@ public class AuthController {
         this.authService = authService;
     }
 
+    // Both endpoints return a future so the servlet thread is released while BCrypt runs
+
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@RequestBody RegisterRequest request) {
-        User user = authService.register(request);
-        String token = JwtUtil.generateToken(user.getEmail());
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(new AuthResponse(token, user.getEmail(), user.getFullName()));
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@RequestBody RegisterRequest request) {
+        return authService.register(request).thenApply(user -> {
+            String token = JwtUtil.generateToken(user.getEmail());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(new AuthResponse(token, user.getEmail(), user.getFullName()));
+        });
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request) {
-        User user = authService.authenticate(request);
-        String token = JwtUtil.generateToken(user.getEmail());
-        return ResponseEntity.ok(new AuthResponse(token, user.getEmail(), user.getFullName()));
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@RequestBody LoginRequest request) {
+        return authService.authenticate(request).thenApply(user -> {
+            String token = JwtUtil.generateToken(user.getEmail());
+            return ResponseEntity.ok(new AuthResponse(token, user.getEmail(), user.getFullName()));
+        });
     }
 }
 
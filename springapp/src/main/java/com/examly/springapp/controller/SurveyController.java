@@ -1,18 +1,46 @@
 package com.examly.springapp.controller;
 
+import com.examly.springapp.dto.CreatorDashboard;
+import com.examly.springapp.dto.CrosstabReport;
+import com.examly.springapp.dto.CursorPage;
+import com.examly.springapp.dto.ImportReport;
+import com.examly.springapp.dto.PurgeJobStatus;
+import com.examly.springapp.dto.SurveySummary;
+import com.examly.springapp.dto.TrendReport;
 import com.examly.springapp.model.SurveyEntry;
 import com.examly.springapp.model.SurveyResponse;
+import com.examly.springapp.model.SurveyStatus;
+import com.examly.springapp.service.BulkImportService;
+import com.examly.springapp.service.DashboardService;
+import com.examly.springapp.service.SurveyAnalyticsService;
+import com.examly.springapp.service.ResponseDeduplicationService;
+import com.examly.springapp.service.ResponseDeduplicationService.Submission;
+import com.examly.springapp.service.ResponseExportService;
+import com.examly.springapp.service.ResponseExportService.ExportFormat;
+import com.examly.springapp.service.ResponseIngestionService;
+import com.examly.springapp.service.SurveyReadCache.CachedJson;
+import com.examly.springapp.service.SurveyReadCache.RenderedSurvey;
+import com.examly.springapp.service.SurveyPurgeService;
 import com.examly.springapp.service.SurveyService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @CrossOrigin(origins = "*")
@@ -21,14 +49,39 @@ public class SurveyController {
 
     private static final Logger logger = LoggerFactory.getLogger(SurveyController.class);
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     @Autowired
     private SurveyService surveyService;
 
+    @Autowired
+    private ResponseExportService exportService;
+
+    @Autowired
+    private ResponseIngestionService ingestionService;
+
+    @Autowired
+    private BulkImportService importService;
+
+    @Autowired
+    private SurveyPurgeService purgeService;
+
+    @Autowired
+    private SurveyAnalyticsService analyticsService;
+
+    @Autowired
+    private ResponseDeduplicationService deduplicationService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    // Served from pre-serialized JSON; a matching If-None-Match gets 304 without a query
     @GetMapping("/all")
-    public ResponseEntity<List<SurveyEntry>> getAllSurveys() {
+    public ResponseEntity<byte[]> getAllSurveys(WebRequest webRequest) {
         try {
-            List<SurveyEntry> surveys = surveyService.getAllSurveys();
-            return ResponseEntity.ok(surveys);
+            CachedJson surveys = surveyService.getCachedAllSurveysJson();
+            return cachedJson(surveys, webRequest);
         } catch (Exception e) {
             logger.error("Error fetching all surveys", e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch surveys");
@@ -50,6 +103,22 @@ public class SurveyController {
         }
     }
     
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<SurveyEntry>> getAllSurveysByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection) {
+        try {
+            return ResponseEntity.ok(surveyService.getSurveysByCursor(cursor, size, sortBy, sortDirection));
+        } catch (ResponseStatusException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error fetching surveys by cursor", e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch surveys");
+        }
+    }
+    
     @GetMapping("/filtered")
     public ResponseEntity<Page<SurveyEntry>> getSurveysWithFilters(
             @RequestParam(required = false) String title,
@@ -64,6 +133,8 @@ public class SurveyController {
             Page<SurveyEntry> surveys = surveyService.getSurveysWithFilters(
                     title, description, creatorEmail, status, page, size, sortBy, sortDirection);
             return ResponseEntity.ok(surveys);
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error fetching filtered surveys", e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch surveys");
@@ -71,10 +142,10 @@ public class SurveyController {
     }
     
     @GetMapping("/{id:\\d+}")
-    public ResponseEntity<SurveyEntry> getSurveyById(@PathVariable Long id) {
+    public ResponseEntity<byte[]> getSurveyById(@PathVariable Long id, WebRequest webRequest) {
         try {
-            return surveyService.getSurveyById(id)
-                    .map(survey -> ResponseEntity.ok(survey))
+            return surveyService.getCachedSurveyJson(id)
+                    .map(survey -> cachedJson(survey, webRequest))
                     .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             logger.error("Error fetching survey by ID: {}", id, e);
@@ -82,6 +153,32 @@ public class SurveyController {
         }
     }
     
+    // Respondent-facing survey document, pre-rendered once per version and copied
+    // straight to the response (gzipped copy when the client accepts it)
+    @GetMapping("/{id:\\d+}/render")
+    public void renderSurvey(@PathVariable Long id, ServletWebRequest webRequest, HttpServletResponse response)
+            throws IOException {
+        RenderedSurvey rendered = surveyService.getRenderedSurvey(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Survey not found"));
+        boolean gzip = rendered.getGzipped() != null && acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? rendered.getGzipEtag() : rendered.getEtag();
+
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (webRequest.checkNotModified(etag)) {
+            return;
+        }
+        byte[] body = gzip ? rendered.getGzipped() : rendered.getJson();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
     @GetMapping("/creator/{email}")
     public ResponseEntity<List<SurveyEntry>> getSurveysByCreator(@PathVariable String email) {
         try {
@@ -93,6 +190,16 @@ public class SurveyController {
         }
     }
     
+    @GetMapping("/creator/{email}/dashboard")
+    public ResponseEntity<CreatorDashboard> getCreatorDashboard(@PathVariable String email) {
+        try {
+            return ResponseEntity.ok(dashboardService.getDashboard(email));
+        } catch (Exception e) {
+            logger.error("Error fetching dashboard for creator: {}", email, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch dashboard");
+        }
+    }
+
     @GetMapping("/creator/{email}/paginated")
     public ResponseEntity<Page<SurveyEntry>> getSurveysByCreatorPaginated(
             @PathVariable String email,
@@ -119,6 +226,8 @@ public class SurveyController {
         try {
             Page<SurveyEntry> surveys = surveyService.getSurveysByStatus(status, page, size, sortBy, sortDirection);
             return ResponseEntity.ok(surveys);
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error fetching paginated surveys by status: {}", status, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch surveys");
@@ -136,6 +245,8 @@ public class SurveyController {
         try {
             Page<SurveyEntry> surveys = surveyService.getSurveysByCreatorAndStatus(email, status, page, size, sortBy, sortDirection);
             return ResponseEntity.ok(surveys);
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error fetching paginated surveys by creator and status: {} - {}", email, status, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch surveys");
@@ -159,20 +270,7 @@ public class SurveyController {
                 entry.setResponsesJson("[]");
             }
             if (entry.getStatus() == null) {
-                entry.setStatus("ACTIVE");
-            }
-
-            // Validate questionsJson if it's not empty
-            if (entry.getQuestionsJson() != null && !entry.getQuestionsJson().trim().isEmpty()) {
-                try {
-                    com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                    com.fasterxml.jackson.databind.JsonNode questionsNode = mapper.readTree(entry.getQuestionsJson());
-                    if (!questionsNode.isArray()) {
-                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid questionsJson format");
-                    }
-                } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
-                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid questionsJson JSON");
-                }
+                entry.setStatus(SurveyStatus.ACTIVE);
             }
 
             SurveyEntry saved = surveyService.createSurvey(entry);
@@ -184,6 +282,13 @@ public class SurveyController {
         }
     }
     
+    // Body is NDJSON (see BulkImportService); read as a stream, never buffered whole
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ImportReport> importSurveys(HttpServletRequest request) throws IOException {
+        ImportReport report = importService.importNdjson(request.getInputStream());
+        return ResponseEntity.ok(report);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<SurveyEntry> updateSurvey(@PathVariable Long id, @RequestBody SurveyEntry surveyDetails) {
         try {
@@ -193,31 +298,88 @@ public class SurveyController {
             } else {
                 return ResponseEntity.notFound().build();
             }
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to update survey");
         }
     }
     
+    // mode=auto purges surveys above survey.delete.async-threshold responses in the background (202)
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, String>> deleteSurvey(@PathVariable Long id) {
+    public ResponseEntity<Map<String, String>> deleteSurvey(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "auto") String mode) {
         try {
+            if (!"auto".equalsIgnoreCase(mode) && !"sync".equalsIgnoreCase(mode) && !"async".equalsIgnoreCase(mode)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "mode must be auto, sync or async");
+            }
+            boolean async = "async".equalsIgnoreCase(mode)
+                    || ("auto".equalsIgnoreCase(mode) && purgeService.shouldPurgeAsync(surveyService.getSurveyResponseCount(id)));
+            if (async) {
+                return purgeService.startPurge(id)
+                        .map(job -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                                .location(URI.create("/api/surveys/purge-jobs/" + job.jobId))
+                                .body(Map.of("message", "Survey purge started",
+                                        "jobId", job.jobId,
+                                        "statusUrl", "/api/surveys/purge-jobs/" + job.jobId)))
+                        .orElse(ResponseEntity.notFound().build());
+            }
             boolean deleted = surveyService.deleteSurvey(id);
             if (deleted) {
                 return ResponseEntity.ok(Map.of("message", "Survey deleted successfully"));
             } else {
                 return ResponseEntity.notFound().build();
             }
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to delete survey");
         }
     }
     
+    @GetMapping("/purge-jobs/{jobId}")
+    public ResponseEntity<PurgeJobStatus> getPurgeJob(@PathVariable String jobId) {
+        return purgeService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping("/{id}/respond")
-    public ResponseEntity<SurveyResponse> submitResponse(@PathVariable Long id, @RequestBody SurveyResponse response) {
+    public ResponseEntity<SurveyResponse> submitResponse(
+            @PathVariable Long id,
+            @RequestBody SurveyResponse response,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
         try {
+            surveyService.validateResponse(id, response.getAnswersJson());
+            response.setId(null);
             response.setSurveyId(id);
-            SurveyResponse saved = surveyService.submitResponse(response);
-            return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+            if (response.getSubmittedAt() == null) {
+                response.setSubmittedAt(LocalDateTime.now());
+            }
+            if (ingestionService.isWriteBehind()) {
+                Optional<SurveyResponse> original = deduplicationService.prepare(response, idempotencyKey);
+                if (original.isPresent()) {
+                    return replayed(original.get());
+                }
+                // The queued instance belongs to the writer thread once offered; answer with a copy (no id yet)
+                SurveyResponse accepted = new SurveyResponse(id, response.getAnswersJson(), response.getRespondentEmail());
+                accepted.setSubmittedAt(response.getSubmittedAt());
+                accepted.setStatus(response.getStatus());
+                if (!ingestionService.enqueue(response)) {
+                    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                            .header(HttpHeaders.RETRY_AFTER, "1")
+                            .build();
+                }
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(accepted);
+            }
+            Submission submission = deduplicationService.submit(response, idempotencyKey);
+            if (submission.isDuplicate()) {
+                return replayed(submission.getResponse());
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(submission.getResponse());
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to submit response");
         }
@@ -233,6 +395,28 @@ public class SurveyController {
         }
     }
     
+    @GetMapping("/{id}/responses/export")
+    public void exportSurveyResponses(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromString(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        SurveyEntry survey = surveyService.getSurveyById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Survey not found"));
+
+        String extension = exportFormat == ExportFormat.CSV ? "csv" : "ndjson";
+        response.setContentType(exportFormat == ExportFormat.CSV ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"survey-" + id + "-responses." + extension + "\"");
+        exportService.exportResponses(survey, exportFormat, response.getOutputStream());
+    }
+
     @GetMapping("/{id}/responses/paginated")
     public ResponseEntity<Page<SurveyResponse>> getSurveyResponsesPaginated(
             @PathVariable Long id,
@@ -248,6 +432,22 @@ public class SurveyController {
         }
     }
     
+    @GetMapping("/{id}/responses/cursor")
+    public ResponseEntity<CursorPage<SurveyResponse>> getSurveyResponsesByCursor(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection) {
+        try {
+            return ResponseEntity.ok(surveyService.getSurveyResponsesByCursor(id, cursor, size, sortBy, sortDirection));
+        } catch (ResponseStatusException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch responses");
+        }
+    }
+    
     @GetMapping("/responses/respondent/{email}/paginated")
     public ResponseEntity<Page<SurveyResponse>> getResponsesByRespondentPaginated(
             @PathVariable String email,
@@ -263,6 +463,22 @@ public class SurveyController {
         }
     }
     
+    @GetMapping("/responses/respondent/{email}/cursor")
+    public ResponseEntity<CursorPage<SurveyResponse>> getResponsesByRespondentByCursor(
+            @PathVariable String email,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection) {
+        try {
+            return ResponseEntity.ok(surveyService.getResponsesByRespondentByCursor(email, cursor, size, sortBy, sortDirection));
+        } catch (ResponseStatusException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch responses");
+        }
+    }
+    
     @GetMapping("/{id}/response-count")
     public ResponseEntity<Map<String, Long>> getSurveyResponseCount(@PathVariable Long id) {
         try {
@@ -272,4 +488,94 @@ public class SurveyController {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch response count");
         }
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<SurveySummary> getSurveySummary(@PathVariable Long id) {
+        try {
+            return surveyService.getSurveyById(id)
+                    .map(survey -> ResponseEntity.ok(surveyService.getSurveySummary(survey)))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            logger.error("Error fetching summary for survey: {}", id, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch survey summary");
+        }
+    }
+
+    @GetMapping("/{id}/answers/statistics")
+    public ResponseEntity<List<SurveySummary.QuestionSummary>> getAnswerStatistics(@PathVariable Long id) {
+        try {
+            return surveyService.getSurveyById(id)
+                    .map(survey -> ResponseEntity.ok(surveyService.getQuestionStatistics(survey.getId())))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            logger.error("Error fetching answer statistics for survey: {}", id, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch answer statistics");
+        }
+    }
+
+    @GetMapping("/{id}/analytics/crosstab")
+    public ResponseEntity<CrosstabReport> getCrosstab(
+            @PathVariable Long id,
+            @RequestParam String row,
+            @RequestParam String column) {
+        try {
+            return ResponseEntity.ok(analyticsService.crosstab(id, row, column));
+        } catch (ResponseStatusException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error computing crosstab for survey: {}", id, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to compute crosstab");
+        }
+    }
+
+    @GetMapping("/{id}/analytics/trend")
+    public ResponseEntity<TrendReport> getTrend(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "day") String interval,
+            @RequestParam(required = false) String questionId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            return ResponseEntity.ok(analyticsService.trend(id, interval, questionId, from, to));
+        } catch (ResponseStatusException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error computing trend for survey: {}", id, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to compute trend");
+        }
+    }
+
+    // A retried submission gets the response its first attempt stored
+    private static ResponseEntity<SurveyResponse> replayed(SurveyResponse original) {
+        return ResponseEntity.ok()
+                .header(IDEMPOTENT_REPLAYED, "true")
+                .body(original);
+    }
+
+    private static ResponseEntity<byte[]> cachedJson(CachedJson cached, WebRequest webRequest) {
+        if (webRequest.checkNotModified(cached.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(cached.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(cached.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(cached.getJson());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
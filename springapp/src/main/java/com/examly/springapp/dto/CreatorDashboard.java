@@ -0,0 +1,23 @@
+package com.examly.springapp.dto;
+
+import com.examly.springapp.model.SurveyDashboardEntry;
+
+import java.util.List;
+
+public class CreatorDashboard {
+    public String creatorEmail;
+    public long totalSurveys;
+    public long totalQuestions;
+    public long totalResponses;
+    public List<SurveyDashboardEntry> surveys;
+
+    public CreatorDashboard(String creatorEmail, List<SurveyDashboardEntry> surveys) {
+        this.creatorEmail = creatorEmail;
+        this.surveys = surveys;
+        this.totalSurveys = surveys.size();
+        for (SurveyDashboardEntry survey : surveys) {
+            totalQuestions += survey.getQuestionCount();
+            totalResponses += survey.getResponseCount();
+        }
+    }
+}
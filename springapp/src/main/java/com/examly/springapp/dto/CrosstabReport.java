@@ -0,0 +1,34 @@
+package com.examly.springapp.dto;
+
+import java.util.List;
+
+/**
+ * Answers to one question broken down by answers to another: counts[i][j] is the
+ * number of responses that gave rows[i] and columns[j]. Multi-select answers
+ * count once for every selected pair.
+ */
+public class CrosstabReport {
+    public Long surveyId;
+    public String rowQuestionId;
+    public String columnQuestionId;
+    public List<String> rows;
+    public List<String> columns;
+    public long[][] counts;
+    public long[] rowTotals;
+    public long[] columnTotals;
+    public long responsesScanned;
+    public long responsesMatched;
+    public long elapsedMs;
+
+    public CrosstabReport(Long surveyId, String rowQuestionId, String columnQuestionId,
+                          List<String> rows, List<String> columns) {
+        this.surveyId = surveyId;
+        this.rowQuestionId = rowQuestionId;
+        this.columnQuestionId = columnQuestionId;
+        this.rows = rows;
+        this.columns = columns;
+        this.counts = new long[rows.size()][columns.size()];
+        this.rowTotals = new long[rows.size()];
+        this.columnTotals = new long[columns.size()];
+    }
+}
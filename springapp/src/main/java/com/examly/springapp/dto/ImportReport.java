@@ -0,0 +1,37 @@
+package com.examly.springapp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of an NDJSON bulk import. Only the first {@code MAX_ERRORS} line
+ * errors are listed; {@code failedLines} counts all of them.
+ */
+public class ImportReport {
+    public static final int MAX_ERRORS = 100;
+
+    public long lines;
+    public long surveysImported;
+    public long responsesImported;
+    public long failedLines;
+    public long elapsedMs;
+    public double rowsPerSecond;
+    public List<LineError> errors = new ArrayList<>();
+
+    public static class LineError {
+        public long line;
+        public String message;
+
+        public LineError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+    }
+
+    public void fail(long line, String message) {
+        failedLines++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new LineError(line, message));
+        }
+    }
+}
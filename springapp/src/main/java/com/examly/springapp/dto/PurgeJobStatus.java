@@ -0,0 +1,20 @@
+package com.examly.springapp.dto;
+
+/** Progress of a background survey purge, as returned by GET /api/surveys/purge-jobs/{jobId}. */
+public class PurgeJobStatus {
+    public String jobId;
+    public Long surveyId;
+    public String state;
+    public long totalResponses;
+    public long deletedResponses;
+    public String error;
+
+    public PurgeJobStatus(String jobId, Long surveyId, String state, long totalResponses, long deletedResponses, String error) {
+        this.jobId = jobId;
+        this.surveyId = surveyId;
+        this.state = state;
+        this.totalResponses = totalResponses;
+        this.deletedResponses = deletedResponses;
+        this.error = error;
+    }
+}
@@ -0,0 +1,47 @@
+package com.examly.springapp.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SurveySummary {
+    public Long surveyId;
+    public long responseCount;
+    public List<QuestionSummary> questions = new ArrayList<>();
+
+    public SurveySummary(Long surveyId, long responseCount) {
+        this.surveyId = surveyId;
+        this.responseCount = responseCount;
+    }
+
+    public static class QuestionSummary {
+        public String questionId;
+        public String text;
+        public long answered;
+        public Map<String, Long> options = new LinkedHashMap<>();
+        public NumericSummary numeric;
+        public long textAnswers;
+
+        public QuestionSummary(String questionId, String text) {
+            this.questionId = questionId;
+            this.text = text;
+        }
+    }
+
+    public static class NumericSummary {
+        public long count;
+        public double sum;
+        public Double min;
+        public Double max;
+        public Double mean;
+
+        public NumericSummary(long count, double sum, Double min, Double max) {
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+            this.mean = count == 0 ? null : sum / count;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.examly.springapp.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Responses per time bucket, optionally with one question's answers per bucket:
+ * option counts for categorical questions and the mean for numeric ones.
+ */
+public class TrendReport {
+    public Long surveyId;
+    public String interval;
+    public String questionId;
+    public LocalDateTime from;
+    public LocalDateTime to;
+    public List<Bucket> buckets = new ArrayList<>();
+    public long responsesScanned;
+    public long elapsedMs;
+
+    public TrendReport(Long surveyId, String interval, String questionId) {
+        this.surveyId = surveyId;
+        this.interval = interval;
+        this.questionId = questionId;
+    }
+
+    public static class Bucket {
+        public LocalDateTime start;
+        public long responses;
+        public long answered;
+        public Double mean;
+        public Map<String, Long> options;
+
+        public Bucket(LocalDateTime start) {
+            this.start = start;
+        }
+    }
+}
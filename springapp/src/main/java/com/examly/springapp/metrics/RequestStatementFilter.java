@@ -0,0 +1,105 @@
+package com.examly.springapp.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Records the number of SQL statements each request issues as the
+ * {@code http.server.requests.statements} summary, tagged like
+ * {@code http.server.requests} (method, uri template, status) so the two can be
+ * read side by side. Runs ahead of the security filters so principal lookups count.
+ *
+ * A request over the statement budget, or one that repeats a single statement
+ * past the repeat threshold (an N+1 loop), is logged with its most repeated SQL
+ * and counted in {@code sql.request.budget.exceeded}. A limit of 0 turns that check off.
+ *
+ * Requests that go asynchronous (the CompletableFuture endpoints in AuthController)
+ * are not recorded: their statements run on another thread, and the status is not
+ * known when this filter returns.
+ */
+public class RequestStatementFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestStatementFilter.class);
+
+    public static final String METRIC = "http.server.requests.statements";
+    public static final String EXCEEDED_METRIC = "sql.request.budget.exceeded";
+
+    private final StatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+    private final int budget;
+    private final int repeatThreshold;
+
+    public RequestStatementFilter(StatementCounter statementCounter, MeterRegistry meterRegistry,
+                                  int budget, int repeatThreshold) {
+        this.statementCounter = statementCounter;
+        this.meterRegistry = meterRegistry;
+        this.budget = budget;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementCounter.Recording recording = statementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            recording.close();
+            if (request.isAsyncStarted()) {
+                return;
+            }
+            String uri = uri(request, response);
+            DistributionSummary.builder(METRIC)
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .tag("status", Integer.toString(response.getStatus()))
+                    .register(meterRegistry)
+                    .record(recording.count());
+            check(request.getMethod(), uri, recording);
+        }
+    }
+
+    private void check(String method, String uri, StatementCounter.Recording recording) {
+        Map.Entry<String, Integer> repeated = recording.mostRepeated().orElse(null);
+        String reason;
+        if (budget > 0 && recording.count() > budget) {
+            reason = "budget";
+        } else if (repeatThreshold > 0 && repeated != null && repeated.getValue() >= repeatThreshold) {
+            reason = "repeated";
+        } else {
+            return;
+        }
+        Counter.builder(EXCEEDED_METRIC)
+                .tag("method", method)
+                .tag("uri", uri)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        logger.warn("{} {} issued {} SQL statements ({} distinct, budget {}); most repeated {}x: {}",
+                method, uri, recording.count(), recording.statements().size(), budget,
+                repeated.getValue(), repeated.getKey());
+    }
+
+    // Only matched templates are used as tags; raw paths would give one series per id
+    private static String uri(HttpServletRequest request, HttpServletResponse response) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        return response.getStatus() == HttpServletResponse.SC_NOT_FOUND ? "NOT_FOUND" : "UNKNOWN";
+    }
+}
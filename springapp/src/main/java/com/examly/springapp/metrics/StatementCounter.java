@@ -0,0 +1,84 @@
+package com.examly.springapp.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Counts the SQL statements Hibernate prepares on each thread. Registered as the
+ * session factory's statement inspector by MetricsConfig; it never rewrites SQL.
+ *
+ * Counting happens inside a {@link Recording}: RequestStatementFilter opens one
+ * per HTTP request, and tests open their own to pin a statement budget.
+ * Recordings nest, and each sees every statement issued while it is open.
+ * A JDBC batch counts once. Work handed to other threads (analytics fork/join
+ * tasks, write-behind ingestion, purge jobs, the async register and login
+ * handlers) is not counted, and RequestStatementFilter records no sample at all
+ * for requests that complete asynchronously.
+ */
+@Component
+public class StatementCounter implements StatementInspector {
+
+    private final ThreadLocal<Recording> open = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        for (Recording recording = open.get(); recording != null; recording = recording.parent) {
+            recording.add(sql);
+        }
+        return sql;
+    }
+
+    /** Starts counting on the calling thread until the returned recording is closed. */
+    public Recording start() {
+        Recording recording = new Recording(open.get());
+        open.set(recording);
+        return recording;
+    }
+
+    /** Statements seen by one recording; close in the reverse order of {@link #start()}. */
+    public final class Recording implements AutoCloseable {
+
+        private final Recording parent;
+        private final Map<String, Integer> bySql = new LinkedHashMap<>();
+        private long count;
+
+        private Recording(Recording parent) {
+            this.parent = parent;
+        }
+
+        private void add(String sql) {
+            count++;
+            bySql.merge(sql, 1, Integer::sum);
+        }
+
+        public long count() {
+            return count;
+        }
+
+        /** Distinct statements in first-seen order, with how often each ran. */
+        public Map<String, Integer> statements() {
+            return Collections.unmodifiableMap(bySql);
+        }
+
+        /** The statement issued most often, the usual sign of an N+1 loop. */
+        public Optional<Map.Entry<String, Integer>> mostRepeated() {
+            return bySql.entrySet().stream().max(Map.Entry.comparingByValue());
+        }
+
+        @Override
+        public void close() {
+            if (open.get() == this) {
+                if (parent == null) {
+                    open.remove();
+                } else {
+                    open.set(parent);
+                }
+            }
+        }
+    }
+}
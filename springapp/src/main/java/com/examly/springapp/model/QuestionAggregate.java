@@ -0,0 +1,69 @@
+package com.examly.springapp.model;
+
+import javax.persistence.*;
+
+@Entity
+@Table(name = "question_aggregate", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"surveyId", "questionId", "kind", "bucket"})
+})
+public class QuestionAggregate {
+
+    public enum Kind { RESPONSES, OPTION, NUMERIC, TEXT }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long surveyId;
+
+    @Column(nullable = false)
+    private String questionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Kind kind;
+
+    @Column(nullable = false)
+    private String bucket = "";
+
+    private long answerCount;
+
+    private double valueSum;
+
+    private Double valueMin;
+
+    private Double valueMax;
+
+    public QuestionAggregate() {
+    }
+
+    public QuestionAggregate(Long surveyId, String questionId, Kind kind, String bucket) {
+        this.surveyId = surveyId;
+        this.questionId = questionId;
+        this.kind = kind;
+        this.bucket = bucket;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getSurveyId() { return surveyId; }
+    public String getQuestionId() { return questionId; }
+    public Kind getKind() { return kind; }
+    public String getBucket() { return bucket; }
+    public long getAnswerCount() { return answerCount; }
+    public double getValueSum() { return valueSum; }
+    public Double getValueMin() { return valueMin; }
+    public Double getValueMax() { return valueMax; }
+
+    // Setters
+    public void setId(Long id) { this.id = id; }
+    public void setSurveyId(Long surveyId) { this.surveyId = surveyId; }
+    public void setQuestionId(String questionId) { this.questionId = questionId; }
+    public void setKind(Kind kind) { this.kind = kind; }
+    public void setBucket(String bucket) { this.bucket = bucket; }
+    public void setAnswerCount(long answerCount) { this.answerCount = answerCount; }
+    public void setValueSum(double valueSum) { this.valueSum = valueSum; }
+    public void setValueMin(Double valueMin) { this.valueMin = valueMin; }
+    public void setValueMax(Double valueMax) { this.valueMax = valueMax; }
+}
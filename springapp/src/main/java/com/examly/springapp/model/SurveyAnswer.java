@@ -0,0 +1,72 @@
+package com.examly.springapp.model;
+
+import com.examly.springapp.model.QuestionAggregate.Kind;
+
+import javax.persistence.*;
+
+/**
+ * One answer value of a stored response, derived from its answersJson: a selected
+ * option (one row per option for multi-select), a number, or free text.
+ */
+@Entity
+@Table(name = "survey_answer", indexes = {
+        @Index(name = "idx_answer_survey_question", columnList = "surveyId, questionId, kind, optionValue, responseId"),
+        @Index(name = "idx_answer_response", columnList = "responseId")
+})
+public class SurveyAnswer {
+    // Pooled like survey_response so answer rows batch with their responses
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "survey_answer_seq")
+    @SequenceGenerator(name = "survey_answer_seq", sequenceName = "survey_answer_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long responseId;
+
+    @Column(nullable = false)
+    private Long surveyId;
+
+    @Column(nullable = false)
+    private String questionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Kind kind;
+
+    private String optionValue;
+
+    private Double numericValue;
+
+    @Column(columnDefinition = "TEXT")
+    private String textValue;
+
+    public SurveyAnswer() {
+    }
+
+    public SurveyAnswer(Long responseId, Long surveyId, String questionId, Kind kind) {
+        this.responseId = responseId;
+        this.surveyId = surveyId;
+        this.questionId = questionId;
+        this.kind = kind;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getResponseId() { return responseId; }
+    public Long getSurveyId() { return surveyId; }
+    public String getQuestionId() { return questionId; }
+    public Kind getKind() { return kind; }
+    public String getOptionValue() { return optionValue; }
+    public Double getNumericValue() { return numericValue; }
+    public String getTextValue() { return textValue; }
+
+    // Setters
+    public void setId(Long id) { this.id = id; }
+    public void setResponseId(Long responseId) { this.responseId = responseId; }
+    public void setSurveyId(Long surveyId) { this.surveyId = surveyId; }
+    public void setQuestionId(String questionId) { this.questionId = questionId; }
+    public void setKind(Kind kind) { this.kind = kind; }
+    public void setOptionValue(String optionValue) { this.optionValue = optionValue; }
+    public void setNumericValue(Double numericValue) { this.numericValue = numericValue; }
+    public void setTextValue(String textValue) { this.textValue = textValue; }
+}
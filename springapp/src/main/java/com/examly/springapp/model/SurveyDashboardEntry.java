@@ -0,0 +1,87 @@
+package com.examly.springapp.model;
+
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One survey's line on its creator's dashboard, kept current by DashboardService
+ * in the transactions that change the survey or add responses to it.
+ */
+@Entity
+@Table(name = "survey_dashboard", indexes = {
+        @Index(name = "idx_dashboard_creator", columnList = "creatorEmail, createdAt, surveyId")
+})
+public class SurveyDashboardEntry implements Persistable<Long> {
+
+    @Id
+    private Long surveyId;
+
+    private String creatorEmail;
+
+    private String title;
+
+    private String description;
+
+    @Convert(converter = SurveyStatus.Converter.class)
+    @Column(columnDefinition = "CHAR(1)")
+    private SurveyStatus status;
+
+    private int questionCount;
+
+    private long responseCount;
+
+    private LocalDateTime lastResponseAt;
+
+    private LocalDateTime createdAt;
+
+    // Ids are the survey's, so save() would otherwise SELECT before every insert
+    @Transient
+    private boolean isNew = true;
+
+    public SurveyDashboardEntry() {
+    }
+
+    public SurveyDashboardEntry(Long surveyId) {
+        this.surveyId = surveyId;
+    }
+
+    @Override
+    public Long getId() {
+        return surveyId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
+    // Getters
+    public Long getSurveyId() { return surveyId; }
+    public String getCreatorEmail() { return creatorEmail; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public SurveyStatus getStatus() { return status; }
+    public int getQuestionCount() { return questionCount; }
+    public long getResponseCount() { return responseCount; }
+    public LocalDateTime getLastResponseAt() { return lastResponseAt; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    // Setters
+    public void setSurveyId(Long surveyId) { this.surveyId = surveyId; }
+    public void setCreatorEmail(String creatorEmail) { this.creatorEmail = creatorEmail; }
+    public void setTitle(String title) { this.title = title; }
+    public void setDescription(String description) { this.description = description; }
+    public void setStatus(SurveyStatus status) { this.status = status; }
+    public void setQuestionCount(int questionCount) { this.questionCount = questionCount; }
+    public void setResponseCount(long responseCount) { this.responseCount = responseCount; }
+    public void setLastResponseAt(LocalDateTime lastResponseAt) { this.lastResponseAt = lastResponseAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -4,7 +4,12 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "survey_entry")
+@Table(name = "survey_entry", indexes = {
+        @Index(name = "idx_survey_creator", columnList = "creatorEmail, id"),
+        @Index(name = "idx_survey_status", columnList = "status, id"),
+        @Index(name = "idx_survey_creator_status", columnList = "creatorEmail, status, id"),
+        @Index(name = "idx_survey_created", columnList = "createdAt, id")
+})
 public class SurveyEntry {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -24,7 +29,12 @@ public class SurveyEntry {
     
     private LocalDateTime createdAt;
     
-    private String status = "ACTIVE";
+    @Convert(converter = SurveyStatus.Converter.class)
+    @Column(nullable = false, columnDefinition = "CHAR(1)")
+    private SurveyStatus status = SurveyStatus.ACTIVE;
+
+    @Version
+    private Long version;
 
     public SurveyEntry() {
         this.createdAt = LocalDateTime.now();
@@ -37,7 +47,7 @@ public class SurveyEntry {
         this.creatorEmail = creatorEmail;
         this.responsesJson = "[]";
         this.createdAt = LocalDateTime.now();
-        this.status = "ACTIVE";
+        this.status = SurveyStatus.ACTIVE;
     }
 
     // Getters
@@ -48,7 +58,8 @@ public class SurveyEntry {
     public String getResponsesJson() { return responsesJson; }
     public String getCreatorEmail() { return creatorEmail; }
     public LocalDateTime getCreatedAt() { return createdAt; }
-    public String getStatus() { return status; }
+    public SurveyStatus getStatus() { return status; }
+    public Long getVersion() { return version; }
 
     // Setters
     public void setId(Long id) { this.id = id; }
@@ -58,5 +69,6 @@ public class SurveyEntry {
     public void setResponsesJson(String responsesJson) { this.responsesJson = responsesJson; }
     public void setCreatorEmail(String creatorEmail) { this.creatorEmail = creatorEmail; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
-    public void setStatus(String status) { this.status = status; }
+    public void setStatus(SurveyStatus status) { this.status = status; }
+    public void setVersion(Long version) { this.version = version; }
 } 
\ No newline at end of file
@@ -1,13 +1,26 @@
 package com.examly.springapp.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "survey_response")
+@Table(name = "survey_response", indexes = {
+        @Index(name = "idx_response_survey", columnList = "surveyId, id"),
+        @Index(name = "idx_response_survey_submitted", columnList = "surveyId, submittedAt, id"),
+        @Index(name = "idx_response_respondent", columnList = "respondentEmail, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_response_dedupe", columnNames = {"surveyId", "dedupeKey"})
+})
 public class SurveyResponse {
+    // Pooled sequence so Hibernate can assign ids up front and batch the inserts
+    // Absent from the 202 a write-behind submission gets, as no id is assigned yet
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "survey_response_seq")
+    @SequenceGenerator(name = "survey_response_seq", sequenceName = "survey_response_seq", allocationSize = 50)
     private Long id;
     
     private Long surveyId;
@@ -21,6 +34,11 @@ public class SurveyResponse {
     
     private String status = "COMPLETED";
 
+    // Idempotency-Key or respondent identity; at most one response per survey may carry a given key
+    @JsonIgnore
+    @Column(length = 320)
+    private String dedupeKey;
+
     public SurveyResponse() {
         this.submittedAt = LocalDateTime.now();
     }
@@ -40,6 +58,7 @@ public class SurveyResponse {
     public String getRespondentEmail() { return respondentEmail; }
     public LocalDateTime getSubmittedAt() { return submittedAt; }
     public String getStatus() { return status; }
+    public String getDedupeKey() { return dedupeKey; }
 
     // Setters
     public void setId(Long id) { this.id = id; }
@@ -48,4 +67,5 @@ public class SurveyResponse {
     public void setRespondentEmail(String respondentEmail) { this.respondentEmail = respondentEmail; }
     public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
     public void setStatus(String status) { this.status = status; }
+    public void setDedupeKey(String dedupeKey) { this.dedupeKey = dedupeKey; }
 }
@@ -0,0 +1,150 @@
+package com.examly.springapp.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.*;
+
+/**
+ * Compiled, immutable form of a survey's questionsJson.
+ *
+ * questionsJson is an array whose items are either a plain question string
+ * or an object such as
+ * {"id":"q1","text":"...","type":"single","options":["A","B"],"required":true,"min":1,"max":5}.
+ * Questions without an id are numbered q1, q2, ... by position.
+ */
+public final class SurveySchema {
+
+    public enum QuestionType {
+        TEXT, SINGLE_CHOICE, MULTIPLE_CHOICE, RATING, NUMBER, BOOLEAN;
+
+        private static final Map<String, QuestionType> ALIASES = new HashMap<>();
+
+        static {
+            for (String alias : List.of("text", "textarea", "short", "long", "open")) ALIASES.put(alias, TEXT);
+            for (String alias : List.of("single", "choice", "radio", "dropdown", "select")) ALIASES.put(alias, SINGLE_CHOICE);
+            for (String alias : List.of("multiple", "multi", "checkbox", "checkboxes")) ALIASES.put(alias, MULTIPLE_CHOICE);
+            for (String alias : List.of("rating", "scale", "nps", "stars")) ALIASES.put(alias, RATING);
+            for (String alias : List.of("number", "numeric", "integer")) ALIASES.put(alias, NUMBER);
+            for (String alias : List.of("boolean", "yes_no", "yesno")) ALIASES.put(alias, BOOLEAN);
+        }
+
+        public static QuestionType fromString(String value) {
+            return value == null ? null : ALIASES.get(value.trim().toLowerCase(Locale.ROOT));
+        }
+
+        public boolean isNumeric() {
+            return this == RATING || this == NUMBER;
+        }
+
+        public boolean isChoice() {
+            return this == SINGLE_CHOICE || this == MULTIPLE_CHOICE || this == BOOLEAN;
+        }
+    }
+
+    public static final class Question {
+        private final String id;
+        private final int index;
+        private final String text;
+        private final QuestionType type;
+        private final List<String> options;
+        private final Set<String> optionSet;
+        private final boolean required;
+        private final Double min;
+        private final Double max;
+
+        public Question(String id, int index, String text, QuestionType type, List<String> options,
+                        boolean required, Double min, Double max) {
+            this.id = id;
+            this.index = index;
+            this.text = text;
+            this.type = type;
+            this.options = List.copyOf(options);
+            this.optionSet = Set.copyOf(options);
+            this.required = required;
+            this.min = min;
+            this.max = max;
+        }
+
+        public String getId() { return id; }
+        public int getIndex() { return index; }
+        public String getText() { return text; }
+        public QuestionType getType() { return type; }
+        public List<String> getOptions() { return options; }
+        public boolean isRequired() { return required; }
+        public Double getMin() { return min; }
+        public Double getMax() { return max; }
+
+        public boolean hasOptions() {
+            return !options.isEmpty();
+        }
+
+        public boolean isOption(String value) {
+            return optionSet.contains(value);
+        }
+
+        /**
+         * Finds this question's answer in a parsed answersJson. Answers are keyed
+         * by question id (or question text), or given positionally as an array.
+         */
+        public JsonNode answerIn(JsonNode answers) {
+            if (answers == null) {
+                return null;
+            }
+            if (answers.isArray()) {
+                return answers.get(index);
+            }
+            JsonNode value = answers.get(id);
+            return value != null ? value : answers.get(text);
+        }
+    }
+
+    private static final SurveySchema EMPTY = new SurveySchema(null, null, Collections.emptyList());
+
+    private final Long surveyId;
+    private final Long version;
+    private final SurveyStatus status;
+    private final List<Question> questions;
+    private final Map<String, Question> byKey;
+
+    public SurveySchema(Long surveyId, Long version, List<Question> questions) {
+        this(surveyId, version, null, questions);
+    }
+
+    private SurveySchema(Long surveyId, Long version, SurveyStatus status, List<Question> questions) {
+        this.surveyId = surveyId;
+        this.version = version;
+        this.status = status;
+        this.questions = List.copyOf(questions);
+        Map<String, Question> keys = new HashMap<>();
+        for (Question question : questions) {
+            keys.putIfAbsent(question.getText(), question);
+        }
+        for (Question question : questions) {
+            keys.put(question.getId(), question);
+        }
+        this.byKey = keys;
+    }
+
+    public static SurveySchema empty() {
+        return EMPTY;
+    }
+
+    public Long getSurveyId() { return surveyId; }
+    public Long getVersion() { return version; }
+    /** Status of the survey version this schema was built from; null for unsaved questions. */
+    public SurveyStatus getStatus() { return status; }
+    public List<Question> getQuestions() { return questions; }
+
+    public int size() {
+        return questions.size();
+    }
+
+    /** Looks a question up by id, falling back to its text. */
+    public Question question(String key) {
+        return byKey.get(key);
+    }
+
+    public SurveySchema withIdentity(Long surveyId, Long version, SurveyStatus status) {
+        return new SurveySchema(surveyId, version, status, questions);
+    }
+}
@@ -0,0 +1,92 @@
+package com.examly.springapp.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+import javax.persistence.AttributeConverter;
+import java.util.Locale;
+
+/**
+ * Survey lifecycle. New surveys start as DRAFT or ACTIVE and only ACTIVE surveys
+ * take responses. A CLOSED survey can be reopened; ARCHIVED is final, and is
+ * also where surveys go on their way to being purged.
+ *
+ * Stored as a one-character code (see {@link Converter}) so the status column
+ * and the indexes that include it stay small.
+ */
+public enum SurveyStatus {
+    DRAFT('D'),
+    ACTIVE('A'),
+    CLOSED('C'),
+    ARCHIVED('X');
+
+    private final char code;
+
+    SurveyStatus(char code) {
+        this.code = code;
+    }
+
+    public char getCode() {
+        return code;
+    }
+
+    /** Whether a survey in this status may be moved to next; staying put is always allowed. */
+    public boolean canBecome(SurveyStatus next) {
+        if (next == this) {
+            return true;
+        }
+        switch (this) {
+            case DRAFT:
+            case CLOSED:
+                return next == ACTIVE || next == ARCHIVED;
+            case ACTIVE:
+                return next == CLOSED || next == ARCHIVED;
+            default:
+                return false;
+        }
+    }
+
+    /** Statuses a survey may be created with. */
+    public boolean isInitial() {
+        return this == DRAFT || this == ACTIVE;
+    }
+
+    public static SurveyStatus fromCode(char code) {
+        for (SurveyStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown survey status code: " + code);
+    }
+
+    /**
+     * Case-insensitive lookup by name; null for a missing or blank value.
+     *
+     * @throws IllegalArgumentException if the value is not a status
+     */
+    @JsonCreator
+    public static SurveyStatus fromString(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown survey status: " + value);
+        }
+    }
+
+    @javax.persistence.Converter
+    public static class Converter implements AttributeConverter<SurveyStatus, String> {
+
+        @Override
+        public String convertToDatabaseColumn(SurveyStatus status) {
+            return status == null ? null : String.valueOf(status.code);
+        }
+
+        @Override
+        public SurveyStatus convertToEntityAttribute(String code) {
+            return code == null || code.isEmpty() ? null : fromCode(code.charAt(0));
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.examly.springapp.model;
 
+import com.examly.springapp.security.UserCacheListener;
+
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(UserCacheListener.class)
 @Table(name = "app_user", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"email"})
 })
@@ -0,0 +1,43 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.model.QuestionAggregate;
+import com.examly.springapp.model.QuestionAggregate.Kind;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface QuestionAggregateRepository extends JpaRepository<QuestionAggregate, Long> {
+    List<QuestionAggregate> findBySurveyId(Long surveyId);
+
+    @Modifying
+    @Query("UPDATE QuestionAggregate a SET a.answerCount = a.answerCount + :count " +
+           "WHERE a.surveyId = :surveyId AND a.questionId = :questionId AND a.kind = :kind AND a.bucket = :bucket")
+    int incrementCount(@Param("surveyId") Long surveyId,
+                       @Param("questionId") String questionId,
+                       @Param("kind") Kind kind,
+                       @Param("bucket") String bucket,
+                       @Param("count") long count);
+
+    @Modifying
+    @Query("UPDATE QuestionAggregate a SET a.answerCount = a.answerCount + :count, a.valueSum = a.valueSum + :sum, " +
+           "a.valueMin = CASE WHEN a.valueMin IS NULL OR a.valueMin > :min THEN :min ELSE a.valueMin END, " +
+           "a.valueMax = CASE WHEN a.valueMax IS NULL OR a.valueMax < :max THEN :max ELSE a.valueMax END " +
+           "WHERE a.surveyId = :surveyId AND a.questionId = :questionId AND a.kind = :kind AND a.bucket = :bucket")
+    int incrementNumeric(@Param("surveyId") Long surveyId,
+                         @Param("questionId") String questionId,
+                         @Param("kind") Kind kind,
+                         @Param("bucket") String bucket,
+                         @Param("count") long count,
+                         @Param("sum") double sum,
+                         @Param("min") double min,
+                         @Param("max") double max);
+
+    @Modifying
+    @Query("DELETE FROM QuestionAggregate a WHERE a.surveyId = :surveyId")
+    int deleteBySurveyId(@Param("surveyId") Long surveyId);
+}
@@ -0,0 +1,79 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.model.SurveyAnswer;
+import com.examly.springapp.model.SurveyResponse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SurveyAnswerRepository extends JpaRepository<SurveyAnswer, Long> {
+
+    interface QuestionCount {
+        String getQuestionId();
+        long getAnswered();
+    }
+
+    interface OptionCount {
+        String getQuestionId();
+        String getOptionValue();
+        long getAnswerCount();
+    }
+
+    interface NumericStats {
+        String getQuestionId();
+        long getAnswerCount();
+        Double getValueSum();
+        Double getValueMin();
+        Double getValueMax();
+    }
+
+    List<SurveyAnswer> findByResponseId(Long responseId);
+
+    // Aggregations below seek idx_answer_survey_question (surveyId, questionId, kind, optionValue, responseId);
+    // the counts are read from the index alone, numericStats also reads each NUMERIC row it finds
+
+    @Query("SELECT a.questionId AS questionId, COUNT(DISTINCT a.responseId) AS answered FROM SurveyAnswer a " +
+           "WHERE a.surveyId = :surveyId GROUP BY a.questionId")
+    List<QuestionCount> countAnsweredByQuestion(@Param("surveyId") Long surveyId);
+
+    @Query("SELECT a.questionId AS questionId, a.optionValue AS optionValue, COUNT(a) AS answerCount FROM SurveyAnswer a " +
+           "WHERE a.surveyId = :surveyId AND a.kind = com.examly.springapp.model.QuestionAggregate$Kind.OPTION " +
+           "GROUP BY a.questionId, a.optionValue ORDER BY a.questionId, COUNT(a) DESC")
+    List<OptionCount> countOptions(@Param("surveyId") Long surveyId);
+
+    @Query("SELECT a.questionId AS questionId, a.optionValue AS optionValue, COUNT(a) AS answerCount FROM SurveyAnswer a " +
+           "WHERE a.surveyId = :surveyId AND a.questionId = :questionId " +
+           "AND a.kind = com.examly.springapp.model.QuestionAggregate$Kind.OPTION " +
+           "GROUP BY a.questionId, a.optionValue ORDER BY COUNT(a) DESC")
+    List<OptionCount> countOptions(@Param("surveyId") Long surveyId, @Param("questionId") String questionId);
+
+    @Query("SELECT a.questionId AS questionId, COUNT(a) AS answerCount, SUM(a.numericValue) AS valueSum, " +
+           "MIN(a.numericValue) AS valueMin, MAX(a.numericValue) AS valueMax FROM SurveyAnswer a " +
+           "WHERE a.surveyId = :surveyId AND a.kind = com.examly.springapp.model.QuestionAggregate$Kind.NUMERIC " +
+           "GROUP BY a.questionId")
+    List<NumericStats> numericStats(@Param("surveyId") Long surveyId);
+
+    @Query("SELECT a.questionId AS questionId, COUNT(a) AS answered FROM SurveyAnswer a " +
+           "WHERE a.surveyId = :surveyId AND a.kind = com.examly.springapp.model.QuestionAggregate$Kind.TEXT " +
+           "GROUP BY a.questionId")
+    List<QuestionCount> countText(@Param("surveyId") Long surveyId);
+
+    // Backfill: responses stored before survey_answer existed, in id order
+    @Query("SELECT r FROM SurveyResponse r WHERE r.id > :afterId AND NOT EXISTS " +
+           "(SELECT 1 FROM SurveyAnswer a WHERE a.responseId = r.id) ORDER BY r.id")
+    List<SurveyResponse> findResponsesWithoutAnswers(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM SurveyAnswer a WHERE a.surveyId = :surveyId")
+    int deleteAllBySurveyId(@Param("surveyId") Long surveyId);
+
+    @Modifying
+    @Query("DELETE FROM SurveyAnswer a WHERE a.surveyId = :surveyId AND a.responseId <= :maxResponseId")
+    int deleteBySurveyIdUpTo(@Param("surveyId") Long surveyId, @Param("maxResponseId") Long maxResponseId);
+}
@@ -0,0 +1,49 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.model.SurveyDashboardEntry;
+import com.examly.springapp.model.SurveyEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SurveyDashboardRepository extends JpaRepository<SurveyDashboardEntry, Long> {
+
+    interface ResponseStats {
+        Long getSurveyId();
+        long getResponseCount();
+        LocalDateTime getLastResponseAt();
+    }
+
+    // Served by idx_dashboard_creator
+    List<SurveyDashboardEntry> findByCreatorEmailOrderByCreatedAtDescSurveyIdDesc(String creatorEmail);
+
+    @Modifying
+    @Query("UPDATE SurveyDashboardEntry d SET d.responseCount = d.responseCount + :count, " +
+           "d.lastResponseAt = CASE WHEN d.lastResponseAt IS NULL OR d.lastResponseAt < :submittedAt " +
+           "THEN :submittedAt ELSE d.lastResponseAt END " +
+           "WHERE d.surveyId = :surveyId")
+    int addResponses(@Param("surveyId") Long surveyId,
+                     @Param("count") long count,
+                     @Param("submittedAt") LocalDateTime submittedAt);
+
+    @Modifying
+    @Query("DELETE FROM SurveyDashboardEntry d WHERE d.surveyId = :surveyId")
+    int deleteBySurveyId(@Param("surveyId") Long surveyId);
+
+    // Backfill of surveys created before the table existed (or written around the service)
+    @Query("SELECT s FROM SurveyEntry s WHERE NOT EXISTS " +
+           "(SELECT 1 FROM SurveyDashboardEntry d WHERE d.surveyId = s.id) ORDER BY s.id")
+    List<SurveyEntry> findSurveysWithoutEntry(Pageable pageable);
+
+    @Query("SELECT r.surveyId AS surveyId, COUNT(r) AS responseCount, MAX(r.submittedAt) AS lastResponseAt " +
+           "FROM SurveyResponse r WHERE r.surveyId IN :surveyIds GROUP BY r.surveyId")
+    List<ResponseStats> findResponseStats(@Param("surveyIds") Collection<Long> surveyIds);
+}
@@ -1,6 +1,7 @@
 package com.examly.springapp.repository;
 
 import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.model.SurveyStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -17,9 +18,9 @@ public interface SurveyRepository extends JpaRepository<SurveyEntry, Long>, JpaS
     
     Page<SurveyEntry> findByCreatorEmail(String creatorEmail, Pageable pageable);
     
-    Page<SurveyEntry> findByStatus(String status, Pageable pageable);
+    Page<SurveyEntry> findByStatus(SurveyStatus status, Pageable pageable);
     
-    Page<SurveyEntry> findByCreatorEmailAndStatus(String creatorEmail, String status, Pageable pageable);
+    Page<SurveyEntry> findByCreatorEmailAndStatus(String creatorEmail, SurveyStatus status, Pageable pageable);
     
     @Query("SELECT s FROM SurveyEntry s WHERE " +
            "(:title IS NULL OR LOWER(s.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
@@ -30,6 +31,15 @@ public interface SurveyRepository extends JpaRepository<SurveyEntry, Long>, JpaS
             @Param("title") String title,
             @Param("description") String description,
             @Param("creatorEmail") String creatorEmail,
-            @Param("status") String status,
+            @Param("status") SurveyStatus status,
             Pageable pageable);
-} 
\ No newline at end of file
+
+    @Query("SELECT s FROM SurveyEntry s WHERE s.id IN :ids AND " +
+           "(:creatorEmail IS NULL OR s.creatorEmail = :creatorEmail) AND " +
+           "(:status IS NULL OR s.status = :status)")
+    List<SurveyEntry> findSurveysByIds(
+            @Param("ids") List<Long> ids,
+            @Param("creatorEmail") String creatorEmail,
+            @Param("status") SurveyStatus status);
+}
+ 
\ No newline at end of file
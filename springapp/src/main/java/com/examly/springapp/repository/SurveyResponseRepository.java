@@ -4,15 +4,90 @@ import com.examly.springapp.model.SurveyResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
 
 @Repository
 public interface SurveyResponseRepository extends JpaRepository<SurveyResponse, Long> {
+
+    // Analytics scan rows: only the columns the parser needs
+    interface AnswerRow {
+        Long getId();
+        String getAnswersJson();
+        LocalDateTime getSubmittedAt();
+    }
+
+    interface DedupeEntry {
+        Long getSurveyId();
+        String getDedupeKey();
+    }
+
     List<SurveyResponse> findBySurveyId(Long surveyId);
     Page<SurveyResponse> findBySurveyId(Long surveyId, Pageable pageable);
     List<SurveyResponse> findByRespondentEmail(String respondentEmail);
     Page<SurveyResponse> findByRespondentEmail(String respondentEmail, Pageable pageable);
     long countBySurveyId(Long surveyId);
+
+    // Served by uk_response_dedupe
+    Optional<SurveyResponse> findBySurveyIdAndDedupeKey(Long surveyId, String dedupeKey);
+
+    // Loads the duplicate filter at startup
+    @QueryHints({
+            @QueryHint(name = FETCH_SIZE, value = "1000"),
+            @QueryHint(name = READ_ONLY, value = "true")
+    })
+    @Query("SELECT r.surveyId AS surveyId, r.dedupeKey AS dedupeKey FROM SurveyResponse r WHERE r.dedupeKey IS NOT NULL")
+    Stream<DedupeEntry> streamDedupeKeys();
+
+    // Cursor over a survey's responses; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = FETCH_SIZE, value = "500"),
+            @QueryHint(name = READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM SurveyResponse r WHERE r.surveyId = :surveyId ORDER BY r.id")
+    Stream<SurveyResponse> streamBySurveyId(@Param("surveyId") Long surveyId);
+
+    @Modifying
+    @Query("DELETE FROM SurveyResponse r WHERE r.surveyId = :surveyId")
+    int deleteAllBySurveyId(@Param("surveyId") Long surveyId);
+
+    // Chunked purge: the id at a given offset bounds the next DELETE, read off (survey_id, id)
+    @Query("SELECT r.id FROM SurveyResponse r WHERE r.surveyId = :surveyId ORDER BY r.id")
+    List<Long> findIdsBySurveyId(@Param("surveyId") Long surveyId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM SurveyResponse r WHERE r.surveyId = :surveyId AND r.id <= :maxId")
+    int deleteBySurveyIdUpTo(@Param("surveyId") Long surveyId, @Param("maxId") Long maxId);
+
+    // Analytics: id boundaries come from idx_response_survey alone, then each chunk is read by id range
+    @QueryHints({
+            @QueryHint(name = FETCH_SIZE, value = "1000"),
+            @QueryHint(name = READ_ONLY, value = "true")
+    })
+    @Query("SELECT r.id FROM SurveyResponse r WHERE r.surveyId = :surveyId ORDER BY r.id")
+    Stream<Long> streamIdsBySurveyId(@Param("surveyId") Long surveyId);
+
+    @Query("SELECT r.id AS id, r.answersJson AS answersJson, r.submittedAt AS submittedAt FROM SurveyResponse r " +
+           "WHERE r.surveyId = :surveyId AND r.id BETWEEN :fromId AND :toId")
+    List<AnswerRow> findAnswerRows(@Param("surveyId") Long surveyId,
+                                   @Param("fromId") Long fromId,
+                                   @Param("toId") Long toId);
+
+    @Query("SELECT MIN(r.submittedAt) FROM SurveyResponse r WHERE r.surveyId = :surveyId")
+    LocalDateTime findFirstSubmittedAt(@Param("surveyId") Long surveyId);
+
+    @Query("SELECT MAX(r.submittedAt) FROM SurveyResponse r WHERE r.surveyId = :surveyId")
+    LocalDateTime findLastSubmittedAt(@Param("surveyId") Long surveyId);
 }
@@ -24,9 +24,11 @@ import java.util.Collections;
 public class JwtAuthFilter extends OncePerRequestFilter implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public JwtAuthFilter(UserRepository userRepository) {
+    public JwtAuthFilter(UserRepository userRepository, PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -36,11 +38,10 @@ public class JwtAuthFilter extends OncePerRequestFilter implements UserDetailsSe
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
             try {
-                String email = com.examly.springapp.security.JwtUtil.validateAndGetSubject(token);
-                User user = userRepository.findByEmail(email).orElse(null);
-                if (user != null) {
+                PrincipalCache.Principal principal = principalCache.authenticate(token).orElse(null);
+                if (principal != null) {
                     UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                            email,
+                            principal.getEmail(),
                             null,
                             Collections.emptyList()
                     );
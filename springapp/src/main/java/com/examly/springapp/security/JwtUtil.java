@@ -20,11 +20,14 @@ public class JwtUtil {
     }
 
     public static String validateAndGetSubject(String token) {
-        Claims claims = Jwts.parser()
+        return validateAndGetClaims(token).getSubject();
+    }
+
+    public static Claims validateAndGetClaims(String token) {
+        return Jwts.parser()
                 .setSigningKey(SECRET)
                 .parseClaimsJws(token)
                 .getBody();
-        return claims.getSubject();
     }
 }
 
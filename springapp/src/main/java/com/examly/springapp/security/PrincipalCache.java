@@ -0,0 +1,151 @@
+package com.examly.springapp.security;
+
+import com.examly.springapp.model.User;
+import com.examly.springapp.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches what JwtAuthFilter needs per request so an authenticated call costs
+ * neither a signature check nor a user lookup once its token has been seen.
+ *
+ * Verified tokens are cached until the token's own expiry, keyed by a SHA-256
+ * of the token so the bearer strings themselves are not kept; principals are
+ * cached by email for a short TTL and evicted explicitly when the user row
+ * changes (see {@link UserCacheListener}). Invalid tokens and unknown users
+ * are never cached.
+ */
+@Component
+public class PrincipalCache {
+
+    /** The parts of a user the filter needs; detached from JPA. */
+    public static final class Principal {
+        private final Long id;
+        private final String email;
+        private final String roles;
+
+        Principal(User user) {
+            this.id = user.getId();
+            this.email = user.getEmail();
+            this.roles = user.getRoles();
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public String getRoles() {
+            return roles;
+        }
+    }
+
+    private static final class VerifiedToken {
+        private final String subject;
+        private final long expiresAtMillis;
+
+        private VerifiedToken(String subject, long expiresAtMillis) {
+            this.subject = subject;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final Cache<String, VerifiedToken> tokens;
+    private final Cache<String, Principal> principals;
+
+    public PrincipalCache(UserRepository userRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${security.token-cache.size:10000}") long tokenCacheSize,
+                          @Value("${security.principal-cache.size:10000}") long principalCacheSize,
+                          @Value("${security.principal-cache.ttl:5m}") Duration principalTtl) {
+        this.userRepository = userRepository;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken value, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.expiresAtMillis - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(token, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(principalCacheSize)
+                .expireAfterWrite(principalTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, "jwt.tokens");
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "jwt.principals");
+    }
+
+    /**
+     * Resolves a bearer token to its user.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public Optional<Principal> authenticate(String token) {
+        String key = tokenKey(token);
+        VerifiedToken verified = tokens.getIfPresent(key);
+        if (verified == null || verified.expiresAtMillis <= System.currentTimeMillis()) {
+            Claims claims = JwtUtil.validateAndGetClaims(token);
+            Date expiration = claims.getExpiration();
+            verified = new VerifiedToken(claims.getSubject(),
+                    expiration == null ? Long.MAX_VALUE : expiration.getTime());
+            tokens.put(key, verified);
+        }
+        return findPrincipal(verified.subject);
+    }
+
+    private static String tokenKey(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public Optional<Principal> findPrincipal(String email) {
+        return Optional.ofNullable(principals.get(email, key -> userRepository.findByEmail(key)
+                .map(Principal::new)
+                .orElse(null)));
+    }
+
+    public void evict(String email) {
+        principals.invalidate(email);
+    }
+
+    /** Evicts by id, which also catches a cached entry under an email that has since changed. */
+    public void evictUser(Long userId) {
+        principals.asMap().values().removeIf(principal -> principal.id.equals(userId));
+    }
+}
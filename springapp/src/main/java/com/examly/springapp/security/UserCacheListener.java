@@ -0,0 +1,50 @@
+package com.examly.springapp.security;
+
+import com.examly.springapp.model.User;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA listener on {@link User} that drops the cached principal whenever a user
+ * row is updated or deleted, whichever code path does it. The eviction waits for
+ * the commit: evicting at flush would let a concurrent request reload the old
+ * row and cache it again for the whole TTL.
+ */
+@Component
+public class UserCacheListener {
+
+    private final PrincipalCache principalCache;
+
+    // Lazy: Hibernate resolves this listener while the EntityManagerFactory that
+    // PrincipalCache's repository depends on is still being built
+    public UserCacheListener(@Lazy PrincipalCache principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        Long id = user.getId();
+        String email = user.getEmail();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id, email);
+                }
+            });
+        } else {
+            evict(id, email);
+        }
+    }
+
+    private void evict(Long id, String email) {
+        principalCache.evictUser(id);
+        principalCache.evict(email);
+    }
+}
@@ -0,0 +1,361 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.SurveySummary;
+import com.examly.springapp.dto.SurveySummary.NumericSummary;
+import com.examly.springapp.dto.SurveySummary.QuestionSummary;
+import com.examly.springapp.model.QuestionAggregate;
+import com.examly.springapp.model.QuestionAggregate.Kind;
+import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.model.SurveyResponse;
+import com.examly.springapp.model.SurveySchema;
+import com.examly.springapp.model.SurveySchema.Question;
+import com.examly.springapp.repository.QuestionAggregateRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.sql.DatabaseMetaData;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Maintains per-question answer tallies for every survey.
+ *
+ * The question_aggregate table is updated in the same transaction that stores
+ * a response, so it always agrees with survey_response. Summaries are served
+ * from an in-memory copy built from LongAdder-style striped counters, which is
+ * loaded from the table on first use and then kept current after each commit.
+ *
+ * There is no survey-wide row: every submission would update it, so it would
+ * serialize all writers to a survey. The response total comes from
+ * {@link ResponseCountService} instead.
+ */
+@Service
+public class AggregationService {
+
+    private static final int MAX_BUCKET_ATTEMPTS = 3;
+
+    private static final Comparator<BucketKey> LOCK_ORDER = Comparator
+            .comparing((BucketKey key) -> key.questionId)
+            .thenComparing(key -> key.kind)
+            .thenComparing(key -> key.bucket);
+
+    @Autowired
+    private QuestionAggregateRepository aggregateRepository;
+
+    @Autowired
+    private SurveySchemaService schemaService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResponseCountService responseCounts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String insertBucketSql;
+
+    private final Map<Long, SurveyTally> tallies = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() throws MetaDataAccessException {
+        String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                DatabaseMetaData::getDatabaseProductName);
+        insertBucketSql = ("MySQL".equals(product) ? "INSERT IGNORE" : "INSERT") +
+                " INTO question_aggregate (survey_id, question_id, kind, bucket, answer_count, value_sum)" +
+                " VALUES (?, ?, ?, ?, 0, 0)";
+    }
+
+    /**
+     * Adds the given responses to the aggregates. Must run inside the transaction
+     * that persists them; the in-memory tallies are only touched after it commits.
+     */
+    public void record(Collection<SurveyResponse> responses) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Aggregates must be recorded inside a transaction");
+        }
+        Map<Long, List<SurveyResponse>> bySurvey = new HashMap<>();
+        for (SurveyResponse response : responses) {
+            bySurvey.computeIfAbsent(response.getSurveyId(), id -> new ArrayList<>()).add(response);
+        }
+        for (Map.Entry<Long, List<SurveyResponse>> entry : bySurvey.entrySet()) {
+            Long surveyId = entry.getKey();
+            SurveySchema schema = schemaService.findSchema(surveyId).orElse(SurveySchema.empty());
+
+            Map<BucketKey, BucketDelta> delta = new HashMap<>();
+            for (SurveyResponse response : entry.getValue()) {
+                accumulate(schema, response.getAnswersJson(), delta);
+            }
+
+            // Held until the transaction completes so a concurrent load cannot read
+            // the committed rows and then see the same delta applied a second time
+            SurveyTally tally = tallies.computeIfAbsent(surveyId, id -> new SurveyTally());
+            Lock lock = tally.lock.readLock();
+            lock.lock();
+            try {
+                applyToStore(surveyId, delta);
+            } catch (RuntimeException e) {
+                lock.unlock();
+                throw e;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tally.apply(delta);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        }
+    }
+
+    public SurveySummary getSummary(SurveyEntry survey) {
+        return summarize(survey.getId(), schemaService.getSchema(survey));
+    }
+
+    /** Summary from the cached schema and tally, without loading the survey row; empty if it does not exist. */
+    public Optional<SurveySummary> findSummary(Long surveyId) {
+        return schemaService.findSchema(surveyId).map(schema -> summarize(surveyId, schema));
+    }
+
+    private SurveySummary summarize(Long surveyId, SurveySchema schema) {
+        SurveyTally tally = tallies.computeIfAbsent(surveyId, id -> new SurveyTally());
+        ensureLoaded(surveyId, tally);
+
+        SurveySummary summary = new SurveySummary(surveyId, responseCounts.getCount(surveyId));
+
+        Map<String, QuestionSummary> byQuestion = new LinkedHashMap<>();
+        for (Question question : schema.getQuestions()) {
+            byQuestion.put(question.getId(), new QuestionSummary(question.getId(), question.getText()));
+        }
+        for (Map.Entry<BucketKey, BucketCounter> entry : tally.buckets.entrySet()) {
+            BucketKey key = entry.getKey();
+            BucketCounter counter = entry.getValue();
+            QuestionSummary question = byQuestion.computeIfAbsent(key.questionId, id -> new QuestionSummary(id, id));
+            switch (key.kind) {
+                case RESPONSES:
+                    question.answered = counter.count.sum();
+                    break;
+                case OPTION:
+                    question.options.put(key.bucket, counter.count.sum());
+                    break;
+                case NUMERIC:
+                    long count = counter.count.sum();
+                    question.numeric = new NumericSummary(count, counter.sum.sum(),
+                            count == 0 ? null : counter.min.get(), count == 0 ? null : counter.max.get());
+                    break;
+                case TEXT:
+                    question.textAnswers = counter.count.sum();
+                    break;
+                default:
+                    break;
+            }
+        }
+        summary.questions.addAll(byQuestion.values());
+        return summary;
+    }
+
+    @Transactional
+    public void deleteSurvey(Long surveyId) {
+        aggregateRepository.deleteBySurveyId(surveyId);
+        tallies.remove(surveyId);
+    }
+
+    private void ensureLoaded(Long surveyId, SurveyTally tally) {
+        if (tally.loaded) {
+            return;
+        }
+        Lock lock = tally.lock.writeLock();
+        lock.lock();
+        try {
+            if (!tally.loaded) {
+                for (QuestionAggregate row : aggregateRepository.findBySurveyId(surveyId)) {
+                    BucketCounter counter = tally.counter(new BucketKey(row.getQuestionId(), row.getKind(), row.getBucket()));
+                    counter.count.add(row.getAnswerCount());
+                    counter.sum.add(row.getValueSum());
+                    if (row.getValueMin() != null) {
+                        counter.min.accumulate(row.getValueMin());
+                    }
+                    if (row.getValueMax() != null) {
+                        counter.max.accumulate(row.getValueMax());
+                    }
+                }
+                tally.loaded = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Buckets are updated in one fixed order so two submissions to the same survey
+    // always lock their rows in the same sequence and cannot deadlock each other
+    private void applyToStore(Long surveyId, Map<BucketKey, BucketDelta> delta) {
+        List<BucketKey> keys = new ArrayList<>(delta.keySet());
+        keys.sort(LOCK_ORDER);
+        for (BucketKey key : keys) {
+            BucketDelta change = delta.get(key);
+            // The retry can still miss when a competing insert we yielded to rolled
+            // back, so go round again rather than dropping the delta
+            for (int attempt = 0; increment(surveyId, key, change) == 0; attempt++) {
+                if (attempt == MAX_BUCKET_ATTEMPTS) {
+                    throw new IllegalStateException("Could not create aggregate bucket " + key.kind + " '" +
+                            key.bucket + "' for question " + key.questionId + " of survey " + surveyId);
+                }
+                createBucket(surveyId, key);
+            }
+        }
+    }
+
+    private int increment(Long surveyId, BucketKey key, BucketDelta change) {
+        if (key.kind == Kind.NUMERIC) {
+            return aggregateRepository.incrementNumeric(surveyId, key.questionId, key.kind, key.bucket,
+                    change.count, change.sum, change.min, change.max);
+        }
+        return aggregateRepository.incrementCount(surveyId, key.questionId, key.kind, key.bucket, change.count);
+    }
+
+    // Runs on the submitting transaction's connection. Plain JDBC rather than the
+    // repository, because a failed JPA statement would mark that transaction rollback-only
+    private void createBucket(Long surveyId, BucketKey key) {
+        try {
+            jdbcTemplate.update(insertBucketSql, surveyId, key.questionId, key.kind.name(), key.bucket);
+        } catch (DuplicateKeyException e) {
+            // Another submission created the row first; the caller re-checks with an update
+        }
+    }
+
+    private void accumulate(SurveySchema schema, String answersJson, Map<BucketKey, BucketDelta> delta) {
+        AnswerDecomposer.decompose(schema, parseQuietly(answersJson), new AnswerDecomposer.Sink() {
+            @Override
+            public void answered(Question question) {
+                bucket(question, Kind.RESPONSES, "").increment();
+            }
+
+            @Override
+            public void option(Question question, String value) {
+                bucket(question, Kind.OPTION, value).increment();
+            }
+
+            @Override
+            public void numeric(Question question, double value) {
+                bucket(question, Kind.NUMERIC, "").add(value);
+            }
+
+            @Override
+            public void text(Question question, String value) {
+                bucket(question, Kind.TEXT, "").increment();
+            }
+
+            private BucketDelta bucket(Question question, Kind kind, String bucket) {
+                return delta.computeIfAbsent(new BucketKey(question.getId(), kind, bucket), k -> new BucketDelta());
+            }
+        });
+    }
+
+    private JsonNode parseQuietly(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static final class SurveyTally {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<BucketKey, BucketCounter> buckets = new ConcurrentHashMap<>();
+        private volatile boolean loaded;
+
+        private BucketCounter counter(BucketKey key) {
+            return buckets.computeIfAbsent(key, k -> new BucketCounter());
+        }
+
+        private void apply(Map<BucketKey, BucketDelta> delta) {
+            if (!loaded) {
+                return;
+            }
+            for (Map.Entry<BucketKey, BucketDelta> entry : delta.entrySet()) {
+                BucketCounter counter = counter(entry.getKey());
+                BucketDelta change = entry.getValue();
+                counter.count.add(change.count);
+                if (entry.getKey().kind == Kind.NUMERIC) {
+                    counter.sum.add(change.sum);
+                    counter.min.accumulate(change.min);
+                    counter.max.accumulate(change.max);
+                }
+            }
+        }
+    }
+
+    private static final class BucketCounter {
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sum = new DoubleAdder();
+        private final DoubleAccumulator min = new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+        private final DoubleAccumulator max = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
+    }
+
+    private static final class BucketDelta {
+        private long count;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        private void increment() {
+            count++;
+        }
+
+        private void add(double value) {
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+    }
+
+    private static class BucketKey {
+        final String questionId;
+        final Kind kind;
+        final String bucket;
+
+        BucketKey(String questionId, Kind kind, String bucket) {
+            this.questionId = questionId;
+            this.kind = kind;
+            this.bucket = bucket;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            BucketKey other = (BucketKey) o;
+            return questionId.equals(other.questionId) && kind == other.kind && bucket.equals(other.bucket);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(questionId, kind, bucket);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.SurveySchema;
+import com.examly.springapp.model.SurveySchema.Question;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Splits a parsed answers document into per-question values, classified the way
+ * the aggregates and the survey_answer table store them: each selected option of
+ * a choice or multi-select answer, a finite number, or free text.
+ */
+final class AnswerDecomposer {
+
+    static final int MAX_OPTION_LENGTH = 255;
+
+    interface Sink {
+        void answered(Question question);
+
+        void option(Question question, String value);
+
+        void numeric(Question question, double value);
+
+        void text(Question question, String value);
+    }
+
+    private AnswerDecomposer() {
+    }
+
+    static void decompose(SurveySchema schema, JsonNode answers, Sink sink) {
+        if (answers == null) {
+            return;
+        }
+        for (Question question : schema.getQuestions()) {
+            decompose(question, answers, sink);
+        }
+    }
+
+    static void decompose(Question question, JsonNode answers, Sink sink) {
+        JsonNode answer = question.answerIn(answers);
+        if (answer == null || answer.isNull() || answer.isMissingNode()
+                || (answer.isTextual() && answer.asText().trim().isEmpty())
+                || (answer.isContainerNode() && answer.size() == 0)) {
+            return;
+        }
+        sink.answered(question);
+
+        if (answer.isArray()) {
+            for (JsonNode item : answer) {
+                if (item.isValueNode() && !item.isNull()) {
+                    sink.option(question, truncate(item.asText()));
+                }
+            }
+            return;
+        }
+        Double number = null;
+        if (answer.isNumber()) {
+            number = answer.doubleValue();
+        } else if (question.getType().isNumeric() && answer.isTextual()) {
+            try {
+                number = Double.valueOf(answer.asText().trim());
+            } catch (NumberFormatException ignored) { }
+        }
+        if (number != null && !number.isNaN() && !number.isInfinite()) {
+            sink.numeric(question, number);
+        } else if (question.getType().isChoice() || question.hasOptions() || answer.isBoolean()) {
+            sink.option(question, truncate(answer.asText()));
+        } else {
+            sink.text(question, answer.isTextual() ? answer.asText() : answer.toString());
+        }
+    }
+
+    private static String truncate(String value) {
+        return value.length() > MAX_OPTION_LENGTH ? value.substring(0, MAX_OPTION_LENGTH) : value;
+    }
+}
@@ -0,0 +1,184 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.SurveySummary.NumericSummary;
+import com.examly.springapp.dto.SurveySummary.QuestionSummary;
+import com.examly.springapp.model.QuestionAggregate.Kind;
+import com.examly.springapp.model.SurveyAnswer;
+import com.examly.springapp.model.SurveyResponse;
+import com.examly.springapp.model.SurveySchema;
+import com.examly.springapp.model.SurveySchema.Question;
+import com.examly.springapp.repository.SurveyAnswerRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the normalized survey_answer table: one row per selected option, number
+ * or text answer of every stored response. Rows are written in the transaction
+ * that stores the responses, and responses stored before the table existed are
+ * filled in by {@link #backfill()}.
+ *
+ * Per-question statistics are then GROUP BY queries over
+ * (survey_id, question_id, kind, option_value) instead of parsing answersJson.
+ */
+@Service
+public class AnswerStoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnswerStoreService.class);
+
+    @Autowired
+    private SurveyAnswerRepository answerRepository;
+
+    @Autowired
+    private SurveySchemaService schemaService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${survey.answers.backfill-chunk-size:1000}")
+    private int backfillChunkSize;
+
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    void init() {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /** Stores the answer rows of the given responses; call in the transaction that saves them. */
+    @Transactional
+    public void record(Collection<SurveyResponse> responses) {
+        answerRepository.saveAll(decompose(responses));
+    }
+
+    /**
+     * Writes answer rows for every response that has none, in id order and in
+     * transactions of {@code survey.answers.backfill-chunk-size}. Safe to re-run.
+     *
+     * @return the number of responses examined
+     */
+    public long backfill() {
+        long examined = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<SurveyResponse> chunk = chunkTransaction.execute(status -> {
+                List<SurveyResponse> responses = answerRepository.findResponsesWithoutAnswers(
+                        from, PageRequest.of(0, backfillChunkSize));
+                answerRepository.saveAll(decompose(responses));
+                return responses;
+            });
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+            examined += chunk.size();
+            afterId = chunk.get(chunk.size() - 1).getId();
+            logger.debug("Answer backfill: {} responses examined, up to id {}", examined, afterId);
+        }
+        logger.info("Answer backfill finished: {} responses examined", examined);
+        return examined;
+    }
+
+    @Transactional
+    public void deleteSurvey(Long surveyId) {
+        answerRepository.deleteAllBySurveyId(surveyId);
+    }
+
+    /** Chunked purge: drops the rows of the survey's responses with ids up to maxResponseId. */
+    @Transactional
+    public int deleteUpTo(Long surveyId, Long maxResponseId) {
+        return answerRepository.deleteBySurveyIdUpTo(surveyId, maxResponseId);
+    }
+
+    /** Per-question counts, option tallies and numeric statistics computed in SQL. */
+    @Transactional(readOnly = true)
+    public List<QuestionSummary> getQuestionStatistics(Long surveyId) {
+        SurveySchema schema = schemaService.findSchema(surveyId).orElse(SurveySchema.empty());
+        Map<String, QuestionSummary> byQuestion = new LinkedHashMap<>();
+        for (Question question : schema.getQuestions()) {
+            byQuestion.put(question.getId(), new QuestionSummary(question.getId(), question.getText()));
+        }
+        for (SurveyAnswerRepository.QuestionCount row : answerRepository.countAnsweredByQuestion(surveyId)) {
+            question(byQuestion, row.getQuestionId()).answered = row.getAnswered();
+        }
+        for (SurveyAnswerRepository.OptionCount row : answerRepository.countOptions(surveyId)) {
+            question(byQuestion, row.getQuestionId()).options.put(row.getOptionValue(), row.getAnswerCount());
+        }
+        for (SurveyAnswerRepository.NumericStats row : answerRepository.numericStats(surveyId)) {
+            question(byQuestion, row.getQuestionId()).numeric = new NumericSummary(row.getAnswerCount(),
+                    row.getValueSum() == null ? 0 : row.getValueSum(), row.getValueMin(), row.getValueMax());
+        }
+        for (SurveyAnswerRepository.QuestionCount row : answerRepository.countText(surveyId)) {
+            question(byQuestion, row.getQuestionId()).textAnswers = row.getAnswered();
+        }
+        return new ArrayList<>(byQuestion.values());
+    }
+
+    private static QuestionSummary question(Map<String, QuestionSummary> byQuestion, String questionId) {
+        return byQuestion.computeIfAbsent(questionId, id -> new QuestionSummary(id, id));
+    }
+
+    private List<SurveyAnswer> decompose(Collection<SurveyResponse> responses) {
+        List<SurveyAnswer> rows = new ArrayList<>();
+        for (SurveyResponse response : responses) {
+            SurveySchema schema = schemaService.findSchema(response.getSurveyId()).orElse(SurveySchema.empty());
+            AnswerDecomposer.decompose(schema, parseQuietly(response.getAnswersJson()), new AnswerDecomposer.Sink() {
+                @Override
+                public void answered(Question question) {
+                }
+
+                @Override
+                public void option(Question question, String value) {
+                    row(question, Kind.OPTION).setOptionValue(value);
+                }
+
+                @Override
+                public void numeric(Question question, double value) {
+                    row(question, Kind.NUMERIC).setNumericValue(value);
+                }
+
+                @Override
+                public void text(Question question, String value) {
+                    row(question, Kind.TEXT).setTextValue(value);
+                }
+
+                private SurveyAnswer row(Question question, Kind kind) {
+                    SurveyAnswer answer = new SurveyAnswer(response.getId(), response.getSurveyId(), question.getId(), kind);
+                    rows.add(answer);
+                    return answer;
+                }
+            });
+        }
+        return rows;
+    }
+
+    private JsonNode parseQuietly(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.SurveySchema;
+import com.examly.springapp.model.SurveySchema.Question;
+import com.examly.springapp.model.SurveySchema.QuestionType;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Checks a submitted answersJson against a compiled {@link SurveySchema}.
+ *
+ * The answers are read token by token with Jackson's streaming parser, so no
+ * JsonNode tree is built. Answers may be an object keyed by question id (or
+ * question text) or an array in question order; null or empty values count as
+ * unanswered.
+ */
+@Component
+public class AnswerValidator {
+
+    private final JsonFactory jsonFactory;
+
+    public AnswerValidator(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * @throws ResponseStatusException with 400 describing the first problem found
+     */
+    public void validate(SurveySchema schema, String answersJson) {
+        if (answersJson == null || answersJson.trim().isEmpty()) {
+            checkRequired(schema, new boolean[schema.size()]);
+            return;
+        }
+        try (JsonParser parser = jsonFactory.createParser(answersJson)) {
+            JsonToken root = parser.nextToken();
+            boolean[] answered = new boolean[schema.size()];
+            if (root == JsonToken.START_OBJECT) {
+                readObject(parser, schema, answered);
+            } else if (root == JsonToken.START_ARRAY) {
+                readArray(parser, schema, answered);
+            } else {
+                throw invalid("answersJson must be an object or an array");
+            }
+            if (parser.nextToken() != null) {
+                throw invalid("Unexpected content after answersJson");
+            }
+            checkRequired(schema, answered);
+        } catch (IOException e) {
+            throw invalid("Invalid answersJson JSON");
+        }
+    }
+
+    private void readObject(JsonParser parser, SurveySchema schema, boolean[] answered) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.getCurrentName();
+            Question question = schema.question(key);
+            parser.nextToken();
+            if (question == null) {
+                // Surveys whose questions could not be compiled accept any well-formed answers
+                if (schema.size() > 0) {
+                    throw invalid("Unknown question: " + key);
+                }
+                parser.skipChildren();
+                continue;
+            }
+            if (answered[question.getIndex()]) {
+                throw invalid("Question " + question.getId() + " is answered more than once");
+            }
+            answered[question.getIndex()] = readAnswer(parser, question);
+        }
+    }
+
+    private void readArray(JsonParser parser, SurveySchema schema, boolean[] answered) throws IOException {
+        List<Question> questions = schema.getQuestions();
+        int index = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (questions.isEmpty()) {
+                parser.skipChildren();
+                continue;
+            }
+            if (index >= questions.size()) {
+                throw invalid("More answers than questions");
+            }
+            answered[index] = readAnswer(parser, questions.get(index));
+            index++;
+        }
+    }
+
+    /** Validates the value at the current token and reports whether it counts as an answer. */
+    private boolean readAnswer(JsonParser parser, Question question) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return false;
+        }
+        QuestionType type = question.getType();
+
+        if (token == JsonToken.START_ARRAY) {
+            if (type != QuestionType.MULTIPLE_CHOICE) {
+                throw invalid("Question " + question.getId() + " takes a single answer");
+            }
+            int selected = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (!parser.currentToken().isScalarValue() || parser.currentToken() == JsonToken.VALUE_NULL) {
+                    throw invalid("Question " + question.getId() + " has an invalid choice");
+                }
+                checkOption(question, parser.getValueAsString());
+                selected++;
+            }
+            return selected > 0;
+        }
+        if (!token.isScalarValue()) {
+            throw invalid("Question " + question.getId() + " has an invalid answer");
+        }
+
+        if (type.isNumeric()) {
+            return checkNumber(parser, question);
+        }
+        if (type == QuestionType.BOOLEAN && !question.hasOptions()) {
+            if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+                return true;
+            }
+            String text = parser.getValueAsString();
+            if (!"true".equalsIgnoreCase(text) && !"false".equalsIgnoreCase(text)) {
+                throw invalid("Question " + question.getId() + " expects true or false");
+            }
+            return true;
+        }
+
+        String text = parser.getValueAsString();
+        if (text == null || text.trim().isEmpty()) {
+            return false;
+        }
+        if (type.isChoice() || question.hasOptions()) {
+            checkOption(question, text);
+        }
+        return true;
+    }
+
+    private boolean checkNumber(JsonParser parser, Question question) throws IOException {
+        double value;
+        if (parser.currentToken().isNumeric()) {
+            value = parser.getDoubleValue();
+        } else if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            String text = parser.getText().trim();
+            if (text.isEmpty()) {
+                return false;
+            }
+            try {
+                value = Double.parseDouble(text);
+            } catch (NumberFormatException e) {
+                throw invalid("Question " + question.getId() + " expects a number");
+            }
+        } else {
+            throw invalid("Question " + question.getId() + " expects a number");
+        }
+        if (Double.isNaN(value) || Double.isInfinite(value)
+                || (question.getMin() != null && value < question.getMin())
+                || (question.getMax() != null && value > question.getMax())) {
+            throw invalid("Question " + question.getId() + " is out of range");
+        }
+        return true;
+    }
+
+    private static void checkOption(Question question, String value) {
+        if (question.hasOptions() && !question.isOption(value)) {
+            throw invalid("'" + value + "' is not an option of question " + question.getId());
+        }
+    }
+
+    private static void checkRequired(SurveySchema schema, boolean[] answered) {
+        for (Question question : schema.getQuestions()) {
+            if (question.isRequired() && !answered[question.getIndex()]) {
+                throw invalid("Question " + question.getId() + " is required");
+            }
+        }
+    }
+
+    private static ResponseStatusException invalid(String message) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+    }
+}
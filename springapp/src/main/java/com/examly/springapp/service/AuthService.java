@@ -4,42 +4,46 @@ import com.examly.springapp.dto.AuthDtos.LoginRequest;
 import com.examly.springapp.dto.AuthDtos.RegisterRequest;
 import com.examly.springapp.model.User;
 import com.examly.springapp.repository.UserRepository;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class AuthService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
-    public AuthService(UserRepository userRepository) {
+    public AuthService(UserRepository userRepository, PasswordHashingService passwordHashingService) {
         this.userRepository = userRepository;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.passwordHashingService = passwordHashingService;
     }
 
-    public User register(RegisterRequest request) {
+    /**
+     * Checks the request on the calling thread and hashes the password on the
+     * hashing pool; the returned future fails with 503 if that pool is saturated.
+     */
+    public CompletableFuture<User> register(RegisterRequest request) {
         if (request == null || request.email == null || request.password == null || request.fullName == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing required fields");
         }
         if (userRepository.existsByEmail(request.email)) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already in use");
         }
-        String hashed = passwordEncoder.encode(request.password);
-        User user = new User(request.fullName, request.email, hashed, "USER");
-        return userRepository.save(user);
+        return passwordHashingService.encode(request.password)
+                .thenApply(hashed -> userRepository.save(new User(request.fullName, request.email, hashed, "USER")));
     }
 
-    public User authenticate(LoginRequest request) {
+    public CompletableFuture<User> authenticate(LoginRequest request) {
         User user = userRepository.findByEmail(request.email)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials"));
-        if (!passwordEncoder.matches(request.password, user.getPasswordHash())) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
-        }
-        return user;
+        return passwordHashingService.matches(request.password, user.getPasswordHash())
+                .thenApply(matches -> {
+                    if (!matches) {
+                        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
+                    }
+                    return user;
+                });
     }
 }
-
-
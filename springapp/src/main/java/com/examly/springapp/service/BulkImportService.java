@@ -0,0 +1,253 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.ImportReport;
+import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.model.SurveyResponse;
+import com.examly.springapp.model.SurveyStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Imports surveys and responses from NDJSON, one object per line:
+ *
+ * <pre>
+ * {"type":"survey","ref":"cs","title":"...","questionsJson":"[...]","creatorEmail":"..."}
+ * {"type":"response","surveyRef":"cs","answersJson":"{...}","respondentEmail":"...","submittedAt":"2024-01-01T10:00:00"}
+ * {"type":"response","surveyId":12,"answers":{"q1":"Yes"}}
+ * </pre>
+ *
+ * Questions and answers may be given as a JSON string (questionsJson, answersJson)
+ * or inline (questions, answers). A response refers to an existing survey by
+ * surveyId or to a survey earlier in the same stream by its ref.
+ *
+ * The stream is read line by line and rows are written in chunks of
+ * {@code survey.import.chunk-size}, each chunk in its own transaction so JDBC
+ * batching applies and a bad row only costs its own chunk a row-by-row retry.
+ * Invalid lines are reported and skipped; they never abort the import.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Autowired
+    private SurveySchemaService schemaService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${survey.import.chunk-size:1000}")
+    private int chunkSize;
+
+    private static final class Pending<T> {
+        private final long line;
+        private final T row;
+        private final String ref;
+
+        private Pending(long line, T row, String ref) {
+            this.line = line;
+            this.row = row;
+            this.ref = ref;
+        }
+    }
+
+    private static final class Run {
+        private final ImportReport report = new ImportReport();
+        private final Map<String, Long> refs = new HashMap<>();
+        private final List<Pending<SurveyEntry>> surveys = new ArrayList<>();
+        private final List<Pending<SurveyResponse>> responses = new ArrayList<>();
+        private final long startNanos = System.nanoTime();
+    }
+
+    public ImportReport importNdjson(InputStream in) throws IOException {
+        Run run = new Run();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            long lineNumber = ++run.report.lines;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                readLine(run, lineNumber, line);
+            } catch (ResponseStatusException e) {
+                run.report.fail(lineNumber, e.getReason());
+            } catch (IllegalArgumentException | JsonProcessingException | DateTimeParseException e) {
+                run.report.fail(lineNumber, e.getMessage());
+            }
+            if (run.surveys.size() >= chunkSize) {
+                flushSurveys(run);
+            }
+            if (run.responses.size() >= chunkSize) {
+                flushResponses(run);
+            }
+        }
+        flushSurveys(run);
+        flushResponses(run);
+
+        ImportReport report = run.report;
+        report.elapsedMs = (System.nanoTime() - run.startNanos) / 1_000_000;
+        long rows = report.surveysImported + report.responsesImported;
+        report.rowsPerSecond = report.elapsedMs == 0 ? rows : rows * 1000.0 / report.elapsedMs;
+        logger.info("Import finished: {} lines, {} surveys, {} responses, {} failed lines in {} ms",
+                report.lines, report.surveysImported, report.responsesImported, report.failedLines, report.elapsedMs);
+        return report;
+    }
+
+    private void readLine(Run run, long lineNumber, String line) throws JsonProcessingException {
+        JsonNode node = objectMapper.readTree(line);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Line is not a JSON object");
+        }
+        String type = node.path("type").asText("");
+        if ("survey".equals(type)) {
+            String ref = node.hasNonNull("ref") ? node.get("ref").asText() : null;
+            if (ref != null && (run.refs.containsKey(ref) || pendingRef(run, ref))) {
+                throw new IllegalArgumentException("Duplicate survey ref: " + ref);
+            }
+            SurveyEntry survey = new SurveyEntry(text(node, "title"), text(node, "description"),
+                    json(node, "questionsJson", "questions"), text(node, "creatorEmail"));
+            schemaService.compile(survey.getQuestionsJson());
+            SurveyStatus status = SurveyStatus.fromString(node.path("status").asText(null));
+            if (status != null) {
+                survey.setStatus(status);
+            }
+            if (node.hasNonNull("createdAt")) {
+                survey.setCreatedAt(LocalDateTime.parse(node.get("createdAt").asText()));
+            }
+            run.surveys.add(new Pending<>(lineNumber, survey, ref));
+        } else if ("response".equals(type)) {
+            Long surveyId = resolveSurvey(run, node);
+            SurveyResponse response = new SurveyResponse(surveyId,
+                    json(node, "answersJson", "answers"), text(node, "respondentEmail"));
+            surveyService.validateAnswers(surveyId, response.getAnswersJson());
+            if (node.hasNonNull("submittedAt")) {
+                response.setSubmittedAt(LocalDateTime.parse(node.get("submittedAt").asText()));
+            }
+            if (node.hasNonNull("status")) {
+                response.setStatus(node.get("status").asText());
+            }
+            run.responses.add(new Pending<>(lineNumber, response, null));
+        } else {
+            throw new IllegalArgumentException("type must be \"survey\" or \"response\"");
+        }
+    }
+
+    private Long resolveSurvey(Run run, JsonNode node) {
+        if (node.hasNonNull("surveyId")) {
+            return node.get("surveyId").asLong();
+        }
+        String ref = node.path("surveyRef").asText(null);
+        if (ref == null) {
+            throw new IllegalArgumentException("Response needs surveyId or surveyRef");
+        }
+        if (!run.refs.containsKey(ref) && pendingRef(run, ref)) {
+            // The survey is still buffered; write it now so the response can use its id
+            flushSurveys(run);
+        }
+        Long surveyId = run.refs.get(ref);
+        if (surveyId == null) {
+            throw new IllegalArgumentException("Unknown surveyRef: " + ref);
+        }
+        return surveyId;
+    }
+
+    private static boolean pendingRef(Run run, String ref) {
+        for (Pending<SurveyEntry> pending : run.surveys) {
+            if (ref.equals(pending.ref)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void flushSurveys(Run run) {
+        if (run.surveys.isEmpty()) {
+            return;
+        }
+        List<SurveyEntry> rows = new ArrayList<>(run.surveys.size());
+        run.surveys.forEach(pending -> rows.add(pending.row));
+        try {
+            surveyService.createSurveys(rows);
+            run.surveys.forEach(pending -> imported(run, pending));
+        } catch (Exception e) {
+            logger.warn("Survey chunk of {} rows failed; retrying individually", rows.size(), e);
+            for (Pending<SurveyEntry> pending : run.surveys) {
+                try {
+                    pending.row.setId(null);
+                    surveyService.createSurveys(List.of(pending.row));
+                    imported(run, pending);
+                } catch (Exception rowError) {
+                    run.report.fail(pending.line, "Insert failed: " + rowError.getMessage());
+                }
+            }
+        }
+        run.surveys.clear();
+    }
+
+    private static void imported(Run run, Pending<SurveyEntry> pending) {
+        run.report.surveysImported++;
+        if (pending.ref != null) {
+            run.refs.put(pending.ref, pending.row.getId());
+        }
+    }
+
+    private void flushResponses(Run run) {
+        if (run.responses.isEmpty()) {
+            return;
+        }
+        List<SurveyResponse> rows = new ArrayList<>(run.responses.size());
+        run.responses.forEach(pending -> rows.add(pending.row));
+        try {
+            surveyService.submitResponses(rows);
+            run.report.responsesImported += rows.size();
+        } catch (Exception e) {
+            logger.warn("Response chunk of {} rows failed; retrying individually", rows.size(), e);
+            for (Pending<SurveyResponse> pending : run.responses) {
+                try {
+                    pending.row.setId(null);
+                    surveyService.submitResponses(List.of(pending.row));
+                    run.report.responsesImported++;
+                } catch (Exception rowError) {
+                    run.report.fail(pending.line, "Insert failed: " + rowError.getMessage());
+                }
+            }
+        }
+        run.responses.clear();
+        logger.info("Import progress: {} lines, {} surveys, {} responses",
+                run.report.lines, run.report.surveysImported, run.report.responsesImported);
+    }
+
+    private static String text(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+
+    private static String json(JsonNode node, String stringField, String inlineField) {
+        if (node.hasNonNull(inlineField)) {
+            return node.get(inlineField).toString();
+        }
+        return text(node, stringField);
+    }
+}
@@ -0,0 +1,175 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.CreatorDashboard;
+import com.examly.springapp.model.SurveyDashboardEntry;
+import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.model.SurveyResponse;
+import com.examly.springapp.model.SurveyStatus;
+import com.examly.springapp.repository.SurveyDashboardRepository;
+import com.examly.springapp.repository.SurveyDashboardRepository.ResponseStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains survey_dashboard, the per-creator summary behind
+ * GET /api/surveys/creator/{email}/dashboard: one row per survey with its
+ * question count, response count and latest response time. Rows change in the
+ * same transaction as the survey or responses they describe, so the dashboard is
+ * a single indexed read instead of loading every survey and counting responses
+ * one survey at a time.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    @Autowired
+    private SurveyDashboardRepository dashboardRepository;
+
+    @Autowired
+    private SurveySchemaService schemaService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${survey.dashboard.backfill-chunk-size:500}")
+    private int backfillChunkSize;
+
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    void init() {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(readOnly = true)
+    public CreatorDashboard getDashboard(String creatorEmail) {
+        return new CreatorDashboard(creatorEmail,
+                dashboardRepository.findByCreatorEmailOrderByCreatedAtDescSurveyIdDesc(creatorEmail));
+    }
+
+    /** Creates or refreshes the rows of saved surveys; call in the transaction that saves them. */
+    @Transactional
+    public void surveysSaved(Collection<SurveyEntry> surveys) {
+        Map<Long, SurveyDashboardEntry> existing = dashboardRepository.findAllById(
+                surveys.stream().map(SurveyEntry::getId).collect(Collectors.toList()))
+                .stream().collect(Collectors.toMap(SurveyDashboardEntry::getSurveyId, Function.identity()));
+        List<SurveyDashboardEntry> created = new ArrayList<>();
+        for (SurveyEntry survey : surveys) {
+            SurveyDashboardEntry entry = existing.get(survey.getId());
+            if (entry == null) {
+                entry = new SurveyDashboardEntry(survey.getId());
+                created.add(entry);
+            }
+            copy(survey, entry);
+        }
+        dashboardRepository.saveAll(created);
+    }
+
+    /** Adds stored responses to their surveys' counts; call in the transaction that saves them. */
+    @Transactional
+    public void responsesAdded(Collection<SurveyResponse> responses) {
+        Map<Long, long[]> counts = new HashMap<>();
+        Map<Long, LocalDateTime> latest = new HashMap<>();
+        for (SurveyResponse response : responses) {
+            counts.computeIfAbsent(response.getSurveyId(), id -> new long[1])[0]++;
+            if (response.getSubmittedAt() != null) {
+                latest.merge(response.getSurveyId(), response.getSubmittedAt(),
+                        (a, b) -> a.isAfter(b) ? a : b);
+            }
+        }
+        counts.forEach((surveyId, count) ->
+                dashboardRepository.addResponses(surveyId, count[0], latest.get(surveyId)));
+    }
+
+    @Transactional
+    public void statusChanged(Long surveyId, SurveyStatus status) {
+        dashboardRepository.findById(surveyId).ifPresent(entry -> entry.setStatus(status));
+    }
+
+    @Transactional
+    public void surveyDeleted(Long surveyId) {
+        dashboardRepository.deleteBySurveyId(surveyId);
+    }
+
+    /**
+     * Writes rows for surveys that have none (created before the table existed, or
+     * saved directly through the repository), counting their responses once.
+     * Runs in chunks of {@code survey.dashboard.backfill-chunk-size}; safe to re-run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public long backfill() {
+        long filled = 0;
+        while (true) {
+            Integer chunk = chunkTransaction.execute(status -> {
+                List<SurveyEntry> surveys = dashboardRepository.findSurveysWithoutEntry(
+                        PageRequest.of(0, backfillChunkSize));
+                if (surveys.isEmpty()) {
+                    return 0;
+                }
+                Map<Long, ResponseStats> stats = dashboardRepository.findResponseStats(
+                        surveys.stream().map(SurveyEntry::getId).collect(Collectors.toList()))
+                        .stream().collect(Collectors.toMap(ResponseStats::getSurveyId, Function.identity()));
+                List<SurveyDashboardEntry> entries = new ArrayList<>();
+                for (SurveyEntry survey : surveys) {
+                    SurveyDashboardEntry entry = new SurveyDashboardEntry(survey.getId());
+                    copy(survey, entry);
+                    ResponseStats row = stats.get(survey.getId());
+                    if (row != null) {
+                        entry.setResponseCount(row.getResponseCount());
+                        entry.setLastResponseAt(row.getLastResponseAt());
+                    }
+                    entries.add(entry);
+                }
+                dashboardRepository.saveAll(entries);
+                return surveys.size();
+            });
+            if (chunk == null || chunk == 0) {
+                break;
+            }
+            filled += chunk;
+        }
+        if (filled > 0) {
+            logger.info("Dashboard backfill wrote {} survey rows", filled);
+        }
+        return filled;
+    }
+
+    private void copy(SurveyEntry survey, SurveyDashboardEntry entry) {
+        entry.setCreatorEmail(survey.getCreatorEmail());
+        entry.setTitle(survey.getTitle());
+        entry.setDescription(survey.getDescription());
+        entry.setStatus(survey.getStatus());
+        entry.setCreatedAt(survey.getCreatedAt());
+        entry.setQuestionCount(questionCount(survey));
+    }
+
+    // Same leniency as stored schemas: unusable questionsJson counts as no questions
+    private int questionCount(SurveyEntry survey) {
+        try {
+            return schemaService.compile(survey.getQuestionsJson()).size();
+        } catch (ResponseStatusException e) {
+            return 0;
+        }
+    }
+}
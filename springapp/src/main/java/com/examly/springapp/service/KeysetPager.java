@@ -0,0 +1,168 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.CursorPage;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keyset ("seek") pagination. Each page is fetched with a WHERE clause that
+ * starts after the last row of the previous page, ordered by the sort key and
+ * then id, so page N costs the same as page 1 and no COUNT query is issued.
+ *
+ * The cursor handed to clients is an opaque token carrying the sort column,
+ * the direction, and the last row's sort key and id.
+ *
+ * A null sort key sorts below every value, which is where MySQL and H2 put it
+ * by default: first in ascending order, last in descending. The ORDER BY leaves
+ * that to the database rather than spelling out NULLS FIRST, which Hibernate
+ * would emulate on MySQL with an expression the index cannot serve. The seek
+ * predicates follow the same rule, so rows with a null key are neither skipped
+ * nor repeated.
+ */
+@Component
+public class KeysetPager {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /** The sortable columns of one entity and how to read them. */
+    public static final class Definition<T> {
+        private final Class<T> entity;
+        private final Function<T, Long> idGetter;
+        private final Map<String, SortKey<T>> keys = new LinkedHashMap<>();
+
+        public Definition(Class<T> entity, Function<T, Long> idGetter) {
+            this.entity = entity;
+            this.idGetter = idGetter;
+            keys.put("id", new SortKey<>(Long.class, idGetter::apply));
+        }
+
+        public Definition<T> key(String property, Class<?> type, Function<T, ?> getter) {
+            keys.put(property, new SortKey<>(type, getter));
+            return this;
+        }
+    }
+
+    private static final class SortKey<T> {
+        private final Class<?> type;
+        private final Function<T, ?> getter;
+
+        private SortKey(Class<?> type, Function<T, ?> getter) {
+            this.type = type;
+            this.getter = getter;
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @param filter JPQL condition on alias {@code e}, or null for none
+     * @param params named parameters used by the filter
+     */
+    public <T> CursorPage<T> page(Definition<T> definition, String filter, Map<String, Object> params,
+                                  String sortBy, String sortDirection, String cursor, int size) {
+        String property = sortBy == null || sortBy.trim().isEmpty() ? "id" : sortBy;
+        SortKey<T> sortKey = definition.keys.get(property);
+        if (sortKey == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Cursor pagination can only sort by " + definition.keys.keySet());
+        }
+        boolean descending = "desc".equalsIgnoreCase(sortDirection);
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        StringBuilder jpql = new StringBuilder("SELECT e FROM ")
+                .append(definition.entity.getSimpleName()).append(" e WHERE 1 = 1");
+        if (filter != null) {
+            jpql.append(" AND (").append(filter).append(')');
+        }
+
+        Object[] position = cursor == null || cursor.isEmpty() ? null : decode(cursor, property, descending, sortKey);
+        String op = descending ? "<" : ">";
+        boolean nullKey = position != null && position[1] == null;
+        if (position != null) {
+            String key = "e." + property;
+            if ("id".equals(property)) {
+                jpql.append(" AND e.id ").append(op).append(" :lastId");
+            } else if (nullKey) {
+                // Nulls come first ascending, so every non-null row is still ahead; descending, none are
+                jpql.append(" AND (").append(key).append(" IS NULL AND e.id ").append(op).append(" :lastId");
+                jpql.append(descending ? ")" : " OR " + key + " IS NOT NULL)");
+            } else {
+                jpql.append(" AND (").append(key).append(' ').append(op).append(" :lastKey OR (")
+                        .append(key).append(" = :lastKey AND e.id ").append(op).append(" :lastId)");
+                jpql.append(descending ? " OR " + key + " IS NULL)" : ")");
+            }
+        }
+        String direction = descending ? " DESC" : " ASC";
+        jpql.append(" ORDER BY ");
+        if (!"id".equals(property)) {
+            jpql.append("e.").append(property).append(direction).append(", ");
+        }
+        jpql.append("e.id").append(direction);
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), definition.entity);
+        if (params != null) {
+            params.forEach(query::setParameter);
+        }
+        if (position != null) {
+            query.setParameter("lastId", position[0]);
+            if (!"id".equals(property) && !nullKey) {
+                query.setParameter("lastKey", position[1]);
+            }
+        }
+        List<T> rows = new ArrayList<>(query.setMaxResults(limit + 1).getResultList());
+
+        boolean hasNext = rows.size() > limit;
+        String nextCursor = null;
+        if (hasNext) {
+            rows = rows.subList(0, limit);
+            T last = rows.get(limit - 1);
+            nextCursor = encode(property, descending, definition.idGetter.apply(last), sortKey.getter.apply(last));
+        }
+        return new CursorPage<>(rows, limit, hasNext, nextCursor);
+    }
+
+    // A null key is written as a missing fourth field, which an empty string key cannot be confused with
+    private static String encode(String property, boolean descending, Long id, Object key) {
+        String raw = property + ':' + (descending ? "desc" : "asc") + ':' + id + (key == null ? "" : ":" + key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static <T> Object[] decode(String cursor, String property, boolean descending, SortKey<T> sortKey) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 4);
+            if (parts.length < 3 || !parts[0].equals(property) || !parts[1].equals(descending ? "desc" : "asc")) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+            Long id = Long.valueOf(parts[2]);
+            Object key;
+            if (parts.length == 3) {
+                key = null;
+            } else if (sortKey.type == Long.class) {
+                key = Long.valueOf(parts[3]);
+            } else if (sortKey.type == LocalDateTime.class) {
+                key = LocalDateTime.parse(parts[3]);
+            } else {
+                key = parts[3];
+            }
+            return new Object[]{id, key};
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.SurveySummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes survey summaries to /topic/surveys/{id} over STOMP.
+ *
+ * Submissions only mark their survey as changed; a single scheduled task
+ * builds one summary per changed survey every {@code survey.live.interval-ms}
+ * and broadcasts it, so a burst of submissions and any number of watchers
+ * cost one in-memory summary per interval instead of a COUNT per poll.
+ */
+@Service
+public class LiveSummaryPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveSummaryPublisher.class);
+
+    public static final String TOPIC_PREFIX = "/topic/surveys/";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private AggregationService aggregationService;
+
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+
+    /** Marks a survey as changed, once the surrounding transaction (if any) has committed. */
+    public void surveyChanged(Long surveyId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changed.add(surveyId);
+                }
+            });
+        } else {
+            changed.add(surveyId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${survey.live.interval-ms:500}")
+    public void publishChanged() {
+        Iterator<Long> iterator = changed.iterator();
+        while (iterator.hasNext()) {
+            Long surveyId = iterator.next();
+            // Removed before summarizing so a submission landing meanwhile marks it again
+            iterator.remove();
+            try {
+                Optional<SurveySummary> summary = aggregationService.findSummary(surveyId);
+                summary.ifPresent(s -> messagingTemplate.convertAndSend(TOPIC_PREFIX + surveyId, s));
+            } catch (RuntimeException e) {
+                logger.warn("Failed to publish live summary for survey {}", surveyId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.repository.SurveyResponseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Serves per-survey response counts from memory, so polling
+ * GET /{id}/response-count does not run a COUNT(*) over survey_response.
+ *
+ * Each survey's count is a LongAdder seeded from the table on first read.
+ * Writers report their changes inside the transaction that makes them and hold
+ * the survey's read lock until it completes; the change is applied after commit.
+ * Seeding takes the write lock, so its COUNT never sees rows whose change is
+ * still to be applied. Every {@code survey.response-count.reconcile-ms} the
+ * loaded counts are checked against the table the same way and corrected.
+ */
+@Service
+public class ResponseCountService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCountService.class);
+
+    @Autowired
+    private SurveyResponseRepository responseRepository;
+
+    @Autowired
+    private SurveySchemaService schemaService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate countTransaction;
+
+    private final Map<Long, SurveyCount> counts = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        countTransaction = new TransactionTemplate(transactionManager);
+        countTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Adds delta (negative for deletes) to a survey's count. Must run inside the
+     * transaction that writes the rows; the count only moves after it commits.
+     */
+    public void recordChange(Long surveyId, long delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Response counts must be changed inside a transaction");
+        }
+        SurveyCount count = counts.computeIfAbsent(surveyId, id -> new SurveyCount());
+        Lock lock = count.lock.readLock();
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                count.apply(delta);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    public long getCount(Long surveyId) {
+        SurveyCount count = counts.computeIfAbsent(surveyId, id -> new SurveyCount());
+        if (count.loaded) {
+            return count.value.sum();
+        }
+        if (count.lock.getReadHoldCount() > 0) {
+            // Called from a transaction that is changing this survey; the write lock would never come
+            return responseRepository.countBySurveyId(surveyId);
+        }
+        long stored = load(surveyId, count, false);
+        if (stored == 0 && schemaService.findSchema(surveyId).isEmpty()) {
+            // Unknown ids are answered but not remembered
+            counts.remove(surveyId, count);
+        }
+        return stored;
+    }
+
+    /** Forgets a deleted survey's count once the surrounding transaction commits. */
+    public void surveyDeleted(Long surveyId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counts.remove(surveyId);
+                }
+            });
+        } else {
+            counts.remove(surveyId);
+        }
+    }
+
+    /**
+     * Re-reads every loaded count from the table, correcting rows written or removed
+     * behind this service's back.
+     *
+     * @return how many counts had drifted
+     */
+    @Scheduled(fixedDelayString = "${survey.response-count.reconcile-ms:300000}",
+            initialDelayString = "${survey.response-count.reconcile-ms:300000}")
+    public int reconcile() {
+        int corrected = 0;
+        for (Map.Entry<Long, SurveyCount> entry : counts.entrySet()) {
+            Long surveyId = entry.getKey();
+            SurveyCount count = entry.getValue();
+            if (!count.loaded) {
+                continue;
+            }
+            try {
+                long before = count.value.sum();
+                long stored = load(surveyId, count, true);
+                if (stored != before) {
+                    corrected++;
+                    logger.warn("Response count for survey {} drifted: {} in memory, {} stored", surveyId, before, stored);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Failed to reconcile response count for survey {}", surveyId, e);
+            }
+        }
+        return corrected;
+    }
+
+    // The connection is taken before the write lock: writers waiting for the lock
+    // already hold theirs, and the COUNT must not then queue behind them for the pool
+    private long load(Long surveyId, SurveyCount count, boolean reload) {
+        Long stored = countTransaction.execute(status -> {
+            Lock lock = count.lock.writeLock();
+            lock.lock();
+            try {
+                if (count.loaded && !reload) {
+                    return count.value.sum();
+                }
+                long rows = responseRepository.countBySurveyId(surveyId);
+                count.value.reset();
+                count.value.add(rows);
+                count.loaded = true;
+                return rows;
+            } finally {
+                lock.unlock();
+            }
+        });
+        return stored == null ? 0 : stored;
+    }
+
+    private static final class SurveyCount {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final LongAdder value = new LongAdder();
+        private volatile boolean loaded;
+
+        private void apply(long delta) {
+            if (loaded) {
+                value.add(delta);
+            }
+        }
+    }
+}
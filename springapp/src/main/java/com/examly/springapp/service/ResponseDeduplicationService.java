@@ -0,0 +1,175 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.SurveyResponse;
+import com.examly.springapp.repository.SurveyResponseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PostConstruct;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Turns retried submissions into replays of the original response.
+ *
+ * A submission is keyed by its Idempotency-Key header or, with
+ * {@code survey.responses.one-per-respondent=true}, by its respondent email. The
+ * key is stored on the response under a unique (survey_id, dedupe_key) index.
+ * A Bloom filter of keys seen so far sits in front of it: a key the filter has
+ * never seen is inserted straight away, so only possible duplicates cost a
+ * lookup. The unique index settles races and keys missing from the filter,
+ * such as keys written before a restart while the filter is still loading.
+ */
+@Service
+public class ResponseDeduplicationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseDeduplicationService.class);
+
+    static final int MAX_IDEMPOTENCY_KEY_LENGTH = 200;
+
+    /** A stored response and whether it was stored by an earlier submission. */
+    public static final class Submission {
+        private final SurveyResponse response;
+        private final boolean duplicate;
+
+        private Submission(SurveyResponse response, boolean duplicate) {
+            this.response = response;
+            this.duplicate = duplicate;
+        }
+
+        public SurveyResponse getResponse() {
+            return response;
+        }
+
+        public boolean isDuplicate() {
+            return duplicate;
+        }
+    }
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Autowired
+    private SurveyResponseRepository responseRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${survey.responses.one-per-respondent:false}")
+    private boolean onePerRespondent;
+
+    @Value("${survey.responses.dedupe.expected-keys:1000000}")
+    private long expectedKeys;
+
+    @Value("${survey.responses.dedupe.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    private Counter skipped;
+    private Counter lookups;
+    private Counter duplicates;
+
+    @PostConstruct
+    void init() {
+        filter = new BloomFilter(expectedKeys, falsePositiveRate);
+        skipped = Counter.builder("responses.dedupe").tag("result", "new").register(meterRegistry);
+        lookups = Counter.builder("responses.dedupe").tag("result", "lookup").register(meterRegistry);
+        duplicates = Counter.builder("responses.dedupe").tag("result", "duplicate").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadFilter() {
+        long keys = 0;
+        try (Stream<SurveyResponseRepository.DedupeEntry> entries = responseRepository.streamDedupeKeys()) {
+            for (SurveyResponseRepository.DedupeEntry entry : (Iterable<SurveyResponseRepository.DedupeEntry>) entries::iterator) {
+                filter.put(filterKey(entry.getSurveyId(), entry.getDedupeKey()));
+                keys++;
+            }
+        }
+        if (keys > expectedKeys) {
+            logger.warn("{} response keys exceed survey.responses.dedupe.expected-keys={}; more submissions will need a lookup",
+                    keys, expectedKeys);
+        }
+        logger.info("Loaded {} response keys into the duplicate filter", keys);
+    }
+
+    /** Stores the response unless an earlier submission with the same key exists, in which case that one is returned. */
+    public Submission submit(SurveyResponse response, String idempotencyKey) {
+        Optional<SurveyResponse> original = prepare(response, idempotencyKey);
+        if (original.isPresent()) {
+            return new Submission(original.get(), true);
+        }
+        try {
+            return new Submission(surveyService.submitResponse(response), false);
+        } catch (DataIntegrityViolationException e) {
+            if (response.getDedupeKey() == null) {
+                throw e;
+            }
+            // A concurrent retry won the unique index, or the filter had not seen the key yet
+            SurveyResponse winner = responseRepository
+                    .findBySurveyIdAndDedupeKey(response.getSurveyId(), response.getDedupeKey())
+                    .orElseThrow(() -> e);
+            duplicates.increment();
+            return new Submission(winner, true);
+        }
+    }
+
+    /**
+     * Sets the response's dedupe key and returns the earlier response with the
+     * same key, if any. When nothing is returned the key is recorded as seen and
+     * the caller is expected to store the response (directly or via a queue).
+     */
+    public Optional<SurveyResponse> prepare(SurveyResponse response, String idempotencyKey) {
+        String key = dedupeKey(response, idempotencyKey);
+        response.setDedupeKey(key);
+        if (key == null) {
+            return Optional.empty();
+        }
+        String filterKey = filterKey(response.getSurveyId(), key);
+        if (filter.mightContain(filterKey)) {
+            lookups.increment();
+            Optional<SurveyResponse> original = responseRepository.findBySurveyIdAndDedupeKey(response.getSurveyId(), key);
+            if (original.isPresent()) {
+                duplicates.increment();
+                return original;
+            }
+        } else {
+            skipped.increment();
+        }
+        filter.put(filterKey);
+        return Optional.empty();
+    }
+
+    private String dedupeKey(SurveyResponse response, String idempotencyKey) {
+        String email = response.getRespondentEmail();
+        if (onePerRespondent && email != null && !email.trim().isEmpty()) {
+            return "r:" + email.trim().toLowerCase(Locale.ROOT);
+        }
+        if (idempotencyKey == null || idempotencyKey.trim().isEmpty()) {
+            return null;
+        }
+        String key = idempotencyKey.trim();
+        if (key.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        return "k:" + key;
+    }
+
+    private static String filterKey(Long surveyId, String dedupeKey) {
+        return surveyId + "/" + dedupeKey;
+    }
+}
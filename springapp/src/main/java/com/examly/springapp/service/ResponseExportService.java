@@ -0,0 +1,205 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.model.SurveyResponse;
+import com.examly.springapp.model.SurveySchema.Question;
+import com.examly.springapp.repository.SurveyResponseRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streams a survey's responses to an output stream as CSV or NDJSON.
+ * Rows are read through a database cursor and detached once written,
+ * so memory use does not grow with the number of responses. On MySQL the
+ * cursor depends on useCursorFetch=true in the JDBC URL (set in the mysql
+ * profile); without it Connector/J ignores the fetch size and buffers the
+ * whole result.
+ */
+@Service
+public class ResponseExportService {
+
+    public enum ExportFormat {
+        CSV, NDJSON;
+
+        public static ExportFormat fromString(String value) {
+            for (ExportFormat format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+
+    private static final int FLUSH_INTERVAL = 500;
+
+    @Autowired
+    private SurveyResponseRepository responseRepository;
+
+    @Autowired
+    private SurveySchemaService schemaService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public void exportResponses(SurveyEntry survey, ExportFormat format, OutputStream out) throws IOException {
+        List<Question> columns = schemaService.getSchema(survey).getQuestions();
+        try (Stream<SurveyResponse> responses = responseRepository.streamBySurveyId(survey.getId())) {
+            if (format == ExportFormat.CSV) {
+                writeCsv(responses, columns, out);
+            } else {
+                writeNdjson(responses, out);
+            }
+        }
+    }
+
+    private void writeCsv(Stream<SurveyResponse> responses, List<Question> columns, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        StringBuilder row = new StringBuilder(256);
+
+        row.append("id,surveyId,respondentEmail,submittedAt,status");
+        for (Question column : columns) {
+            row.append(',');
+            appendCsvValue(row, column.getText());
+        }
+        writer.write(row.append("\r\n").toString());
+
+        int written = 0;
+        Iterator<SurveyResponse> iterator = responses.iterator();
+        while (iterator.hasNext()) {
+            SurveyResponse response = iterator.next();
+            row.setLength(0);
+            row.append(response.getId()).append(',')
+                    .append(response.getSurveyId()).append(',');
+            appendCsvValue(row, response.getRespondentEmail());
+            row.append(',');
+            appendCsvValue(row, response.getSubmittedAt() == null ? null : response.getSubmittedAt().toString());
+            row.append(',');
+            appendCsvValue(row, response.getStatus());
+
+            JsonNode answers = parseQuietly(response.getAnswersJson());
+            for (Question column : columns) {
+                row.append(',');
+                appendCsvValue(row, flatten(column.answerIn(answers)));
+            }
+            writer.write(row.append("\r\n").toString());
+
+            entityManager.detach(response);
+            if (++written % FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeNdjson(Stream<SurveyResponse> responses, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+
+        int written = 0;
+        Iterator<SurveyResponse> iterator = responses.iterator();
+        while (iterator.hasNext()) {
+            SurveyResponse response = iterator.next();
+            generator.writeStartObject();
+            generator.writeNumberField("id", response.getId());
+            generator.writeNumberField("surveyId", response.getSurveyId());
+            generator.writeStringField("respondentEmail", response.getRespondentEmail());
+            generator.writeStringField("submittedAt",
+                    response.getSubmittedAt() == null ? null : response.getSubmittedAt().toString());
+            generator.writeStringField("status", response.getStatus());
+            JsonNode answers = parseQuietly(response.getAnswersJson());
+            if (answers != null) {
+                generator.writeFieldName("answers");
+                generator.writeTree(answers);
+            } else {
+                generator.writeStringField("answers", response.getAnswersJson());
+            }
+            generator.writeEndObject();
+
+            entityManager.detach(response);
+            if (++written % FLUSH_INTERVAL == 0) {
+                generator.flush();
+            }
+        }
+        // Terminate the last record so the output is valid NDJSON
+        if (written > 0) {
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    private JsonNode parseQuietly(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static String flatten(JsonNode value) {
+        if (value == null || value.isNull() || value.isMissingNode()) {
+            return null;
+        }
+        if (value.isArray()) {
+            StringBuilder joined = new StringBuilder();
+            for (JsonNode item : value) {
+                if (joined.length() > 0) {
+                    joined.append("; ");
+                }
+                joined.append(item.isValueNode() ? item.asText() : item.toString());
+            }
+            return joined.toString();
+        }
+        return value.isValueNode() ? value.asText() : value.toString();
+    }
+
+    private static void appendCsvValue(StringBuilder row, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            row.append(value);
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+}
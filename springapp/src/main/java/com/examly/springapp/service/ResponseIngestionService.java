@@ -0,0 +1,183 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.SurveyResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind ingestion for survey responses, enabled with
+ * {@code survey.ingest.mode=write-behind}.
+ *
+ * Submissions are placed on a bounded lock-free queue and acknowledged right
+ * away; a single writer thread drains the queue and stores responses in JDBC
+ * batches. When the queue is full, {@link #enqueue} refuses the submission so
+ * the caller can push back on the client. Queued responses are flushed when
+ * the application shuts down: enqueue checks and offers under the read side of
+ * a lock that stop() takes exclusively to stop accepting, so every accepted
+ * response is on the queue before the writer's final drain.
+ */
+@Service
+public class ResponseIngestionService implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseIngestionService.class);
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Value("${survey.ingest.mode:direct}")
+    private String mode;
+
+    @Value("${survey.ingest.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${survey.ingest.batch-size:200}")
+    private int batchSize;
+
+    @Value("${survey.ingest.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    private final Queue<SurveyResponse> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final ReentrantReadWriteLock acceptLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private Thread writer;
+
+    public boolean isWriteBehind() {
+        return "write-behind".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Queues a response for the writer thread.
+     *
+     * @return false if the queue is full or the writer has stopped
+     */
+    public boolean enqueue(SurveyResponse response) {
+        Lock lock = acceptLock.readLock();
+        lock.lock();
+        try {
+            if (!running) {
+                return false;
+            }
+            if (queued.incrementAndGet() > queueCapacity) {
+                queued.decrementAndGet();
+                return false;
+            }
+            queue.offer(response);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    @Override
+    public void start() {
+        if (!isWriteBehind() || running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drainLoop, "response-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Write-behind response ingestion started (capacity {}, batch size {})", queueCapacity, batchSize);
+    }
+
+    @Override
+    public void stop() {
+        Lock lock = acceptLock.writeLock();
+        lock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+        } finally {
+            lock.unlock();
+        }
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Writer did not finish in time; flushing {} queued responses on shutdown thread", queued.get());
+            drainAll();
+        }
+        logger.info("Write-behind response ingestion stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stop after the web server so no new submissions arrive while the queue drains
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 2048;
+    }
+
+    private void drainLoop() {
+        long parkNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (running || !queue.isEmpty()) {
+            if (flushBatch() == 0 && running) {
+                LockSupport.parkNanos(this, parkNanos);
+            }
+        }
+    }
+
+    private void drainAll() {
+        while (flushBatch() > 0) {
+            // keep flushing until the queue is empty
+        }
+    }
+
+    private int flushBatch() {
+        List<SurveyResponse> batch = new ArrayList<>(batchSize);
+        SurveyResponse next;
+        while (batch.size() < batchSize && (next = queue.poll()) != null) {
+            queued.decrementAndGet();
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            surveyService.submitResponses(batch);
+        } catch (Exception e) {
+            logger.error("Batch insert of {} responses failed; retrying individually", batch.size(), e);
+            for (SurveyResponse response : batch) {
+                try {
+                    response.setId(null);
+                    surveyService.submitResponses(Collections.singletonList(response));
+                } catch (DataIntegrityViolationException duplicate) {
+                    logger.debug("Dropping duplicate response for survey {} ({})", response.getSurveyId(), response.getDedupeKey());
+                } catch (Exception rowError) {
+                    logger.error("Dropping response for survey {}", response.getSurveyId(), rowError);
+                }
+            }
+        }
+        return batch.size();
+    }
+}
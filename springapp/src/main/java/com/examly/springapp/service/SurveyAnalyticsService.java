@@ -0,0 +1,531 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.CrosstabReport;
+import com.examly.springapp.dto.TrendReport;
+import com.examly.springapp.model.SurveySchema;
+import com.examly.springapp.model.SurveySchema.Question;
+import com.examly.springapp.model.SurveySchema.QuestionType;
+import com.examly.springapp.repository.SurveyResponseRepository;
+import com.examly.springapp.repository.SurveyResponseRepository.AnswerRow;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Cross-tabulations and time trends computed from a survey's answersJson.
+ *
+ * A scan first reads the survey's response ids (index only) and cuts them into
+ * id ranges of {@code survey.analytics.chunk-size}. Ranges are then read and
+ * parsed in parallel on a dedicated fork/join pool of at most
+ * {@code survey.analytics.parallelism} threads. Each leaf task counts into its
+ * own primitive arrays, and the arrays are summed as the tasks join, so workers
+ * never share a counter.
+ */
+@Service
+public class SurveyAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SurveyAnalyticsService.class);
+
+    private static final int MAX_BUCKETS = 1000;
+    private static final int MAX_NUMERIC_CATEGORIES = 100;
+
+    public enum Interval {
+        HOUR(ChronoUnit.HOURS), DAY(ChronoUnit.DAYS), WEEK(ChronoUnit.WEEKS), MONTH(ChronoUnit.MONTHS);
+
+        private final ChronoUnit unit;
+
+        Interval(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public static Interval fromString(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "interval must be one of " + Arrays.toString(values()).toLowerCase(Locale.ROOT));
+            }
+        }
+
+        LocalDateTime truncate(LocalDateTime time) {
+            switch (this) {
+                case HOUR:
+                    return time.truncatedTo(ChronoUnit.HOURS);
+                case WEEK:
+                    return time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH:
+                    return time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+                default:
+                    return time.truncatedTo(ChronoUnit.DAYS);
+            }
+        }
+    }
+
+    @Autowired
+    private SurveyResponseRepository responseRepository;
+
+    @Autowired
+    private SurveySchemaService schemaService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${survey.analytics.parallelism:0}")
+    private int parallelism;
+
+    @Value("${survey.analytics.chunk-size:2000}")
+    private int chunkSize;
+
+    private ForkJoinPool pool;
+    private TransactionTemplate readTransaction;
+
+    @PostConstruct
+    void init() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("survey-analytics-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public CrosstabReport crosstab(Long surveyId, String rowKey, String columnKey) {
+        long start = System.nanoTime();
+        SurveySchema schema = schema(surveyId);
+        Question row = question(schema, rowKey);
+        Question column = question(schema, columnKey);
+        List<String> rows = categories(row);
+        List<String> columns = categories(column);
+        if (rows == null || columns == null) {
+            Question open = rows == null ? row : column;
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Question '" + open.getId() + "' has no fixed set of answers to break down by");
+        }
+
+        Map<String, Integer> rowIndex = index(rows);
+        Map<String, Integer> columnIndex = index(columns);
+        CrosstabTally tally = scan(surveyId, () -> new CrosstabTally(row, rowIndex, column, columnIndex));
+
+        CrosstabReport report = new CrosstabReport(surveyId, row.getId(), column.getId(), rows, columns);
+        for (int i = 0; i < rows.size(); i++) {
+            for (int j = 0; j < columns.size(); j++) {
+                long count = tally.counts[i * tally.columns + j];
+                report.counts[i][j] = count;
+                report.rowTotals[i] += count;
+                report.columnTotals[j] += count;
+            }
+        }
+        report.responsesScanned = tally.scanned;
+        report.responsesMatched = tally.matched;
+        report.elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        logger.debug("Crosstab {} x {} for survey {}: {} responses in {} ms",
+                row.getId(), column.getId(), surveyId, tally.scanned, report.elapsedMs);
+        return report;
+    }
+
+    /**
+     * Responses per interval between from and to (both inclusive; defaulting to the
+     * first and last submission), with the given question's answers per bucket.
+     */
+    public TrendReport trend(Long surveyId, String intervalName, String questionKey,
+                             LocalDateTime from, LocalDateTime to) {
+        long start = System.nanoTime();
+        Interval interval = Interval.fromString(intervalName);
+        SurveySchema schema = schema(surveyId);
+        Question question = questionKey == null || questionKey.isEmpty() ? null : question(schema, questionKey);
+        List<String> categories = question == null ? null : categories(question);
+
+        TrendReport report = new TrendReport(surveyId, interval.name().toLowerCase(Locale.ROOT),
+                question == null ? null : question.getId());
+        LocalDateTime first = from != null ? from : responseRepository.findFirstSubmittedAt(surveyId);
+        LocalDateTime last = to != null ? to : responseRepository.findLastSubmittedAt(surveyId);
+        if (first == null || last == null) {
+            return report;
+        }
+        if (first.isAfter(last)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        LocalDateTime firstBucket = interval.truncate(first);
+        long bucketCount = interval.unit.between(firstBucket, interval.truncate(last)) + 1;
+        if (bucketCount > MAX_BUCKETS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Range covers " + bucketCount + " buckets; use a wider interval or a shorter range (max " + MAX_BUCKETS + ")");
+        }
+
+        Map<String, Integer> categoryIndex = categories == null ? null : index(categories);
+        TrendTally tally = scan(surveyId, () -> new TrendTally(interval, firstBucket, first, last,
+                (int) bucketCount, question, categoryIndex));
+
+        report.from = first;
+        report.to = last;
+        for (int b = 0; b < bucketCount; b++) {
+            TrendReport.Bucket bucket = new TrendReport.Bucket(firstBucket.plus(b, interval.unit));
+            bucket.responses = tally.responses[b];
+            bucket.answered = tally.answered[b];
+            bucket.mean = tally.numericCounts[b] == 0 ? null : tally.numericSums[b] / tally.numericCounts[b];
+            if (categories != null) {
+                bucket.options = new LinkedHashMap<>();
+                for (int c = 0; c < categories.size(); c++) {
+                    bucket.options.put(categories.get(c), tally.options[b * tally.categories + c]);
+                }
+            }
+            report.buckets.add(bucket);
+        }
+        report.responsesScanned = tally.scanned;
+        report.elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        return report;
+    }
+
+    private SurveySchema schema(Long surveyId) {
+        return schemaService.findSchema(surveyId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Survey not found"));
+    }
+
+    private static Question question(SurveySchema schema, String key) {
+        Question question = key == null ? null : schema.question(key);
+        if (question == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown question: " + key);
+        }
+        return question;
+    }
+
+    // The fixed answer set of a question, or null for free text and open-ended numbers.
+    // Options repeated in questionsJson appear once, so the list matches index() position for position
+    private static List<String> categories(Question question) {
+        if (question.hasOptions()) {
+            return List.copyOf(new LinkedHashSet<>(question.getOptions()));
+        }
+        if (question.getType() == QuestionType.BOOLEAN) {
+            return List.of("true", "false");
+        }
+        Double min = question.getMin();
+        Double max = question.getMax();
+        if (question.getType().isNumeric() && min != null && max != null
+                && min == Math.rint(min) && max == Math.rint(max) && max - min < MAX_NUMERIC_CATEGORIES) {
+            List<String> values = new ArrayList<>();
+            for (long value = min.longValue(); value <= max.longValue(); value++) {
+                values.add(Long.toString(value));
+            }
+            return values;
+        }
+        return null;
+    }
+
+    private static Map<String, Integer> index(List<String> categories) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < categories.size(); i++) {
+            index.put(categories.get(i), i);
+        }
+        return index;
+    }
+
+    private static String numericKey(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    private <T extends Tally<T>> T scan(Long surveyId, Supplier<T> factory) {
+        List<long[]> chunks = chunks(surveyId);
+        if (chunks.isEmpty()) {
+            return factory.get();
+        }
+        return pool.invoke(new ScanTask<>(surveyId, chunks, 0, chunks.size(), factory));
+    }
+
+    // [firstId, lastId] ranges of chunkSize responses each
+    private List<long[]> chunks(Long surveyId) {
+        return readTransaction.execute(status -> {
+            List<long[]> chunks = new ArrayList<>();
+            try (Stream<Long> ids = responseRepository.streamIdsBySurveyId(surveyId)) {
+                long[] current = null;
+                int count = 0;
+                for (Iterator<Long> it = ids.iterator(); it.hasNext(); ) {
+                    long id = it.next();
+                    if (current == null) {
+                        current = new long[] {id, id};
+                        count = 0;
+                    }
+                    current[1] = id;
+                    if (++count == chunkSize) {
+                        chunks.add(current);
+                        current = null;
+                    }
+                }
+                if (current != null) {
+                    chunks.add(current);
+                }
+            }
+            return chunks;
+        });
+    }
+
+    private JsonNode parseQuietly(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private final class ScanTask<T extends Tally<T>> extends RecursiveTask<T> {
+        private final Long surveyId;
+        private final List<long[]> chunks;
+        private final int lo;
+        private final int hi;
+        private final Supplier<T> factory;
+
+        private ScanTask(Long surveyId, List<long[]> chunks, int lo, int hi, Supplier<T> factory) {
+            this.surveyId = surveyId;
+            this.chunks = chunks;
+            this.lo = lo;
+            this.hi = hi;
+            this.factory = factory;
+        }
+
+        @Override
+        protected T compute() {
+            if (hi - lo == 1) {
+                long[] range = chunks.get(lo);
+                T tally = factory.get();
+                for (AnswerRow row : responseRepository.findAnswerRows(surveyId, range[0], range[1])) {
+                    tally.scanned++;
+                    tally.add(row, parseQuietly(row.getAnswersJson()));
+                }
+                return tally;
+            }
+            int mid = (lo + hi) >>> 1;
+            ScanTask<T> left = new ScanTask<>(surveyId, chunks, lo, mid, factory);
+            left.fork();
+            T right = new ScanTask<>(surveyId, chunks, mid, hi, factory).compute();
+            T merged = left.join();
+            merged.scanned += right.scanned;
+            merged.merge(right);
+            return merged;
+        }
+    }
+
+    private abstract static class Tally<T extends Tally<T>> {
+        long scanned;
+
+        abstract void add(AnswerRow row, JsonNode answers);
+
+        abstract void merge(T other);
+
+        static void addAll(long[] target, long[] source) {
+            for (int i = 0; i < target.length; i++) {
+                target[i] += source[i];
+            }
+        }
+    }
+
+    /** Category indices one question's answer falls into, reused across the rows of one task. */
+    private static final class CategoryHits implements AnswerDecomposer.Sink {
+        private final Map<String, Integer> index;
+        private int[] hits = new int[4];
+        private int size;
+        private boolean answered;
+        private boolean numeric;
+        private double value;
+
+        private CategoryHits(Map<String, Integer> index) {
+            this.index = index;
+        }
+
+        private void collect(Question question, JsonNode answers) {
+            size = 0;
+            answered = false;
+            numeric = false;
+            if (answers != null) {
+                AnswerDecomposer.decompose(question, answers, this);
+            }
+        }
+
+        @Override
+        public void answered(Question question) {
+            answered = true;
+        }
+
+        @Override
+        public void option(Question question, String value) {
+            hit(value);
+        }
+
+        @Override
+        public void numeric(Question question, double value) {
+            this.numeric = true;
+            this.value = value;
+            hit(numericKey(value));
+        }
+
+        @Override
+        public void text(Question question, String value) {
+        }
+
+        private void hit(String value) {
+            Integer i = index == null ? null : index.get(value);
+            if (i == null) {
+                return;
+            }
+            for (int k = 0; k < size; k++) {
+                if (hits[k] == i) {
+                    return;
+                }
+            }
+            if (size == hits.length) {
+                hits = Arrays.copyOf(hits, size * 2);
+            }
+            hits[size++] = i;
+        }
+    }
+
+    private static final class CrosstabTally extends Tally<CrosstabTally> {
+        private final Question row;
+        private final Question column;
+        private final int columns;
+        private final CategoryHits rowHits;
+        private final CategoryHits columnHits;
+        private final long[] counts;
+        private long matched;
+
+        private CrosstabTally(Question row, Map<String, Integer> rowIndex, Question column, Map<String, Integer> columnIndex) {
+            this.row = row;
+            this.column = column;
+            this.columns = columnIndex.size();
+            this.rowHits = new CategoryHits(rowIndex);
+            this.columnHits = new CategoryHits(columnIndex);
+            this.counts = new long[rowIndex.size() * columns];
+        }
+
+        @Override
+        void add(AnswerRow response, JsonNode answers) {
+            rowHits.collect(row, answers);
+            if (rowHits.size == 0) {
+                return;
+            }
+            columnHits.collect(column, answers);
+            if (columnHits.size == 0) {
+                return;
+            }
+            matched++;
+            for (int i = 0; i < rowHits.size; i++) {
+                for (int j = 0; j < columnHits.size; j++) {
+                    counts[rowHits.hits[i] * columns + columnHits.hits[j]]++;
+                }
+            }
+        }
+
+        @Override
+        void merge(CrosstabTally other) {
+            addAll(counts, other.counts);
+            matched += other.matched;
+        }
+    }
+
+    private static final class TrendTally extends Tally<TrendTally> {
+        private final Interval interval;
+        private final LocalDateTime firstBucket;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final Question question;
+        private final int categories;
+        private final CategoryHits hits;
+        private final long[] responses;
+        private final long[] answered;
+        private final long[] numericCounts;
+        private final double[] numericSums;
+        private final long[] options;
+
+        private TrendTally(Interval interval, LocalDateTime firstBucket, LocalDateTime from, LocalDateTime to,
+                           int buckets, Question question, Map<String, Integer> categoryIndex) {
+            this.interval = interval;
+            this.firstBucket = firstBucket;
+            this.from = from;
+            this.to = to;
+            this.question = question;
+            this.categories = categoryIndex == null ? 0 : categoryIndex.size();
+            this.hits = new CategoryHits(categoryIndex);
+            this.responses = new long[buckets];
+            this.answered = new long[buckets];
+            this.numericCounts = new long[buckets];
+            this.numericSums = new double[buckets];
+            this.options = new long[buckets * categories];
+        }
+
+        @Override
+        void add(AnswerRow row, JsonNode answers) {
+            LocalDateTime submittedAt = row.getSubmittedAt();
+            if (submittedAt == null || submittedAt.isBefore(from) || submittedAt.isAfter(to)) {
+                return;
+            }
+            int b = (int) interval.unit.between(firstBucket, interval.truncate(submittedAt));
+            responses[b]++;
+            if (question == null) {
+                return;
+            }
+            hits.collect(question, answers);
+            if (hits.answered) {
+                answered[b]++;
+            }
+            if (hits.numeric) {
+                numericCounts[b]++;
+                numericSums[b] += hits.value;
+            }
+            for (int k = 0; k < hits.size; k++) {
+                options[b * categories + hits.hits[k]]++;
+            }
+        }
+
+        @Override
+        void merge(TrendTally other) {
+            addAll(responses, other.responses);
+            addAll(answered, other.answered);
+            addAll(numericCounts, other.numericCounts);
+            addAll(options, other.options);
+            for (int i = 0; i < numericSums.length; i++) {
+                numericSums[i] += other.numericSums[i];
+            }
+        }
+    }
+}
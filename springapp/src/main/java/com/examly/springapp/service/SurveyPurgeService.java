@@ -0,0 +1,159 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.dto.PurgeJobStatus;
+import com.examly.springapp.repository.SurveyResponseRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes surveys too large for one transaction. The survey is archived first so
+ * it stops taking responses, then its responses are removed in id-ordered chunks
+ * of {@code survey.delete.chunk-size}, each chunk its own short transaction, and
+ * finally the survey, its aggregates and any stragglers go in one last transaction.
+ *
+ * Jobs run one at a time on a background thread; their progress is kept for an
+ * hour after they finish. A job that fails leaves the survey ARCHIVED with
+ * whatever responses it had not yet deleted; deleting it again starts a new job.
+ */
+@Service
+public class SurveyPurgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SurveyPurgeService.class);
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private static final class Job {
+        private final String id = UUID.randomUUID().toString();
+        private final Long surveyId;
+        private final long total;
+        private final AtomicLong deleted = new AtomicLong();
+        private volatile State state = State.QUEUED;
+        private volatile String error;
+
+        private Job(Long surveyId, long total) {
+            this.surveyId = surveyId;
+            this.total = total;
+        }
+
+        private PurgeJobStatus toStatus() {
+            return new PurgeJobStatus(id, surveyId, state.name(), total, deleted.get(), error);
+        }
+    }
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Autowired
+    private SurveyResponseRepository responseRepository;
+
+    @Autowired
+    private AnswerStoreService answerStore;
+
+    @Autowired
+    private ResponseCountService responseCounts;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${survey.delete.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${survey.delete.async-threshold:10000}")
+    private long asyncThreshold;
+
+    private TransactionTemplate chunkTransaction;
+    private ExecutorService executor;
+    private final Cache<String, Job> jobs = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    @PostConstruct
+    void init() {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "survey-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Whether a survey with this many responses should be purged in the background. */
+    public boolean shouldPurgeAsync(long responseCount) {
+        return responseCount > asyncThreshold;
+    }
+
+    /** Archives the survey and queues its purge; empty if the survey does not exist. */
+    public Optional<PurgeJobStatus> startPurge(Long surveyId) {
+        long total = responseCounts.getCount(surveyId);
+        if (!surveyService.archiveForPurge(surveyId)) {
+            return Optional.empty();
+        }
+        Job job = new Job(surveyId, total);
+        jobs.put(job.id, job);
+        executor.execute(() -> run(job));
+        return Optional.of(job.toStatus());
+    }
+
+    public Optional<PurgeJobStatus> getJob(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId)).map(Job::toStatus);
+    }
+
+    private void run(Job job) {
+        job.state = State.RUNNING;
+        logger.info("Purging survey {} ({} responses) in chunks of {}", job.surveyId, job.total, chunkSize);
+        try {
+            int deleted;
+            do {
+                deleted = chunkTransaction.execute(status -> deleteChunk(job.surveyId));
+                job.deleted.addAndGet(deleted);
+                logger.debug("Purge of survey {}: {}/{} responses deleted", job.surveyId, job.deleted.get(), job.total);
+            } while (deleted > 0);
+            surveyService.deleteSurvey(job.surveyId);
+            job.state = State.COMPLETED;
+            logger.info("Purged survey {} ({} responses)", job.surveyId, job.deleted.get());
+        } catch (RuntimeException e) {
+            job.error = e.getMessage();
+            job.state = State.FAILED;
+            logger.error("Purge of survey {} failed after {} responses", job.surveyId, job.deleted.get(), e);
+            surveyService.purgeFailed(job.surveyId);
+        }
+    }
+
+    private int deleteChunk(Long surveyId) {
+        List<Long> boundary = responseRepository.findIdsBySurveyId(surveyId, PageRequest.of(chunkSize - 1, 1));
+        int deleted;
+        if (boundary.isEmpty()) {
+            // Less than a chunk left
+            answerStore.deleteSurvey(surveyId);
+            deleted = responseRepository.deleteAllBySurveyId(surveyId);
+        } else {
+            answerStore.deleteUpTo(surveyId, boundary.get(0));
+            deleted = responseRepository.deleteBySurveyIdUpTo(surveyId, boundary.get(0));
+        }
+        responseCounts.recordChange(surveyId, -deleted);
+        return deleted;
+    }
+}
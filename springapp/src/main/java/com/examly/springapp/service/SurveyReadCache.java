@@ -0,0 +1,243 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.repository.SurveyRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Read-through cache of surveys as ready-to-send JSON bytes with a strong ETag.
+ *
+ * Single surveys are keyed by id and tagged with id and version, so a client
+ * holding a current ETag gets a 304 without a query or serialization. Every tag
+ * also carries a per-run value: ids, versions and generations start over when the
+ * database does, and a tag from before a restart must not match new content. The
+ * /all listing is cached as one entry tagged with a generation number that
+ * every create, update and delete advances. SurveyService is the only writer
+ * and calls {@link #evict(Long)} after each change.
+ *
+ * The public render form ({@link RenderedSurvey}) is a separate respondent-facing
+ * document with questionsJson embedded as raw JSON, built once per survey version
+ * together with a gzipped copy.
+ */
+@Service
+public class SurveyReadCache {
+
+    /** Serialized JSON and the ETag it is served with. */
+    public static final class CachedJson {
+        private final String etag;
+        private final byte[] json;
+        private final long generation;
+
+        private CachedJson(String etag, byte[] json, long generation) {
+            this.etag = etag;
+            this.json = json;
+            this.generation = generation;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+    }
+
+    /** Pre-rendered public survey document, plain and (for larger documents) gzipped. */
+    public static final class RenderedSurvey {
+        private final String etag;
+        private final byte[] json;
+        private final byte[] gzipped;
+
+        private RenderedSurvey(String etag, byte[] json, byte[] gzipped) {
+            this.etag = etag;
+            this.json = json;
+            this.gzipped = gzipped;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        /** Strong ETags differ per content encoding. */
+        public String getGzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        /** Null when the document is below survey.render.gzip-min-bytes. */
+        public byte[] getGzipped() {
+            return gzipped;
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(SurveyReadCache.class);
+
+    @Autowired
+    private SurveyRepository surveyRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${survey.cache.size:10000}")
+    private long cacheSize;
+
+    @Value("${survey.render.gzip-min-bytes:512}")
+    private int gzipMinBytes;
+
+    private Cache<Long, CachedJson> surveys;
+    private Cache<Long, RenderedSurvey> rendered;
+    private final AtomicLong generation = new AtomicLong();
+    // Keeps ETags from one run from matching different content after a restart
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+    private volatile CachedJson all;
+
+    @PostConstruct
+    void init() {
+        surveys = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+        rendered = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, surveys, "surveys");
+        CaffeineCacheMetrics.monitor(meterRegistry, rendered, "surveys.rendered");
+    }
+
+    public Optional<CachedJson> getSurvey(Long id) {
+        return Optional.ofNullable(surveys.get(id, key -> surveyRepository.findById(key)
+                .map(survey -> new CachedJson(etag(survey.getId() + "-" + survey.getVersion() + "-" + instance), serialize(survey), 0))
+                .orElse(null)));
+    }
+
+    public Optional<RenderedSurvey> getRendered(Long id) {
+        return Optional.ofNullable(rendered.get(id, key -> surveyRepository.findById(key)
+                .map(this::render)
+                .orElse(null)));
+    }
+
+    public CachedJson getAll() {
+        CachedJson cached = all;
+        long current = generation.get();
+        if (cached != null && cached.generation == current) {
+            return cached;
+        }
+        // Tagged with the generation read before the query, so a change made
+        // while loading leaves this entry stale and the next read reloads
+        List<SurveyEntry> surveyList = surveyRepository.findAll();
+        cached = new CachedJson(etag("all-" + instance + "-" + current), serialize(surveyList), current);
+        all = cached;
+        return cached;
+    }
+
+    /** Drops the survey and the /all listing; pass null when only the listing changed. */
+    public void evict(Long id) {
+        generation.incrementAndGet();
+        if (id != null) {
+            surveys.invalidate(id);
+            rendered.invalidate(id);
+        }
+    }
+
+    private RenderedSurvey render(SurveyEntry survey) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 + length(survey.getQuestionsJson()));
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeNumberField("id", survey.getId());
+            if (survey.getVersion() != null) {
+                generator.writeNumberField("version", survey.getVersion());
+            }
+            generator.writeStringField("title", survey.getTitle());
+            generator.writeStringField("description", survey.getDescription());
+            generator.writeStringField("status", survey.getStatus() == null ? null : survey.getStatus().name());
+            generator.writeFieldName("questions");
+            if (isJson(survey)) {
+                generator.writeRawValue(survey.getQuestionsJson());
+            } else {
+                generator.writeStartArray();
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] json = out.toByteArray();
+        String tag = "r" + survey.getId() + "-" + survey.getVersion() + "-" + instance;
+        return new RenderedSurvey(etag(tag), json, json.length >= gzipMinBytes ? gzip(json) : null);
+    }
+
+    // Raw embedding is only safe for well-formed JSON; older rows may hold anything
+    private boolean isJson(SurveyEntry survey) {
+        String questionsJson = survey.getQuestionsJson();
+        if (questionsJson == null || questionsJson.trim().isEmpty()) {
+            return false;
+        }
+        try (JsonParser parser = objectMapper.getFactory().createParser(questionsJson)) {
+            parser.nextToken();
+            parser.skipChildren();
+            if (parser.nextToken() == null) {
+                return true;
+            }
+        } catch (IOException e) {
+            // fall through
+        }
+        logger.warn("Survey {} has malformed questionsJson; rendering no questions", survey.getId());
+        return false;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String etag(String value) {
+        return '"' + value + '"';
+    }
+}
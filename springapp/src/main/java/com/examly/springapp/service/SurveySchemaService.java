@@ -0,0 +1,208 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.model.SurveySchema;
+import com.examly.springapp.model.SurveySchema.Question;
+import com.examly.springapp.model.SurveySchema.QuestionType;
+import com.examly.springapp.repository.SurveyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Compiles questionsJson into a {@link SurveySchema} and keeps the result in a
+ * bounded LRU cache keyed by survey id and version, so a caller holding an older
+ * copy of a survey can never put its schema in place of the current one.
+ *
+ * Lookups by id alone go through the newest version seen for each survey. That
+ * only ever moves forward: SurveyService reports every committed change with
+ * {@link #refresh(SurveyEntry)} and every delete with {@link #evict(Long)}, and a
+ * slower reader that loaded the row before the change cannot move it back.
+ */
+@Service
+public class SurveySchemaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SurveySchemaService.class);
+
+    @Autowired
+    private SurveyRepository surveyRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${survey.schema.cache-size:1000}")
+    private long cacheSize;
+
+    // Version that marks a deleted survey; no stored version reaches it
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private Cache<SchemaKey, SurveySchema> cache;
+    private Cache<Long, Long> latestVersions;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+        latestVersions = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    /**
+     * Parses and checks questionsJson.
+     *
+     * @throws ResponseStatusException with 400 if it is not a valid question array
+     */
+    public SurveySchema compile(String questionsJson) {
+        if (questionsJson == null || questionsJson.trim().isEmpty()) {
+            return SurveySchema.empty();
+        }
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(questionsJson);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid questionsJson JSON");
+        }
+        if (node == null || !node.isArray()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid questionsJson format");
+        }
+
+        List<Question> questions = new ArrayList<>(node.size());
+        Set<String> ids = new HashSet<>();
+        int index = 0;
+        for (JsonNode item : node) {
+            Question question = compileQuestion(item, index++);
+            if (!ids.add(question.getId())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Duplicate question id: " + question.getId());
+            }
+            questions.add(question);
+        }
+        return new SurveySchema(null, null, questions);
+    }
+
+    /** Schema for exactly the given version of a stored survey. */
+    public SurveySchema getSchema(SurveyEntry survey) {
+        SurveySchema schema = cache.get(new SchemaKey(survey.getId(), survey.getVersion()), key -> compileStored(survey));
+        if (survey.getVersion() != null) {
+            latestVersions.asMap().merge(survey.getId(), survey.getVersion(), Math::max);
+        }
+        return schema;
+    }
+
+    /** Schema for the current version of a stored survey, loading the survey only on a cache miss; empty if it does not exist. */
+    public Optional<SurveySchema> findSchema(Long surveyId) {
+        Long version = latestVersions.getIfPresent(surveyId);
+        if (version != null) {
+            SurveySchema cached = cache.getIfPresent(new SchemaKey(surveyId, version));
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+        return surveyRepository.findById(surveyId).map(this::getSchema);
+    }
+
+    /** Makes a committed change to the survey current; call after commit with the saved entity. */
+    public void refresh(SurveyEntry survey) {
+        getSchema(survey);
+    }
+
+    /** Forgets a deleted survey; call after commit. */
+    public void evict(Long surveyId) {
+        latestVersions.put(surveyId, DELETED);
+    }
+
+    // Stored surveys are not re-validated; a survey saved before validation existed
+    // still gets a usable (possibly empty) schema rather than failing every request
+    private SurveySchema compileStored(SurveyEntry survey) {
+        try {
+            return compile(survey.getQuestionsJson()).withIdentity(survey.getId(), survey.getVersion(), survey.getStatus());
+        } catch (ResponseStatusException e) {
+            logger.warn("Survey {} has unusable questionsJson: {}", survey.getId(), e.getReason());
+            return SurveySchema.empty().withIdentity(survey.getId(), survey.getVersion(), survey.getStatus());
+        }
+    }
+
+    private Question compileQuestion(JsonNode item, int index) {
+        String defaultId = "q" + (index + 1);
+        if (item.isTextual()) {
+            return new Question(defaultId, index, item.asText(), QuestionType.TEXT, List.of(), false, null, null);
+        }
+        if (!item.isObject()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Question " + (index + 1) + " must be a string or an object");
+        }
+
+        String id = item.path("id").asText(defaultId);
+        String text = item.path("text").asText(item.path("question").asText(id));
+
+        List<String> options = new ArrayList<>();
+        JsonNode optionsNode = item.path("options");
+        if (!optionsNode.isMissingNode() && !optionsNode.isArray()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Options of question " + id + " must be an array");
+        }
+        for (JsonNode option : optionsNode) {
+            if (!option.isValueNode() || option.isNull()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Options of question " + id + " must be plain values");
+            }
+            options.add(option.asText());
+        }
+
+        QuestionType type;
+        if (item.hasNonNull("type")) {
+            type = QuestionType.fromString(item.get("type").asText());
+            if (type == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown type for question " + id);
+            }
+        } else {
+            type = options.isEmpty() ? QuestionType.TEXT : QuestionType.SINGLE_CHOICE;
+        }
+
+        Double min = item.path("min").isNumber() ? item.get("min").doubleValue() : null;
+        Double max = item.path("max").isNumber() ? item.get("max").doubleValue() : null;
+        if (min != null && max != null && min > max) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "min is greater than max for question " + id);
+        }
+        return new Question(id, index, text, type, options, item.path("required").asBoolean(false), min, max);
+    }
+
+    private static final class SchemaKey {
+        private final Long surveyId;
+        private final Long version;
+
+        private SchemaKey(Long surveyId, Long version) {
+            this.surveyId = surveyId;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            SchemaKey other = (SchemaKey) o;
+            return surveyId.equals(other.surveyId) && Objects.equals(version, other.version);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(surveyId, version);
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.model.SurveyStatus;
+import com.examly.springapp.repository.SurveyRepository;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process Lucene index over survey titles and descriptions.
+ *
+ * creatorEmail and status are indexed as exact-match filter fields, and the
+ * sortable columns as doc values, so a search filters, counts, sorts and pages
+ * entirely in the index and hands back only the ids of the requested page.
+ *
+ * The index is kept in memory, or on disk when {@code survey.search.index-dir}
+ * is set, and is updated by SurveyService on create, update and delete. It is
+ * rebuilt from the database at startup when its size does not match the survey
+ * table or it was written with different fields (see {@link #FORMAT}). Indexing failures are logged and never fail the database write.
+ */
+@Service
+public class SurveySearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SurveySearchService.class);
+
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+    private static final String CREATOR = "creatorEmail";
+    private static final String STATUS = "status";
+    /** Sortable SurveyEntry properties and the doc values field each is sorted by. */
+    private static final Map<String, SortField.Type> SORTABLE = Map.of(
+            "id", SortField.Type.LONG,
+            "createdAt", SortField.Type.LONG,
+            "title", SortField.Type.STRING,
+            "description", SortField.Type.STRING,
+            "creatorEmail", SortField.Type.STRING,
+            "status", SortField.Type.STRING);
+    private static final String SORT_PREFIX = "sort.";
+    /** Recorded with every commit; bump when the indexed fields change so stored indexes are rebuilt. */
+    private static final String FORMAT = "3";
+    private static final String FORMAT_KEY = "format";
+    private static final int REBUILD_PAGE_SIZE = 500;
+
+    @Autowired
+    private SurveyRepository surveyRepository;
+
+    @Value("${survey.search.enabled:true}")
+    private boolean enabled;
+
+    @Value("${survey.search.index-dir:}")
+    private String indexDir;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    @PostConstruct
+    void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        directory = indexDir == null || indexDir.trim().isEmpty()
+                ? new ByteBuffersDirectory()
+                : FSDirectory.open(Paths.get(indexDir));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfStale() {
+        if (enabled && (!FORMAT.equals(storedFormat()) || writer.getDocStats().numDocs != surveyRepository.count())) {
+            rebuild();
+        }
+    }
+
+    public synchronized void rebuild() {
+        try {
+            writer.deleteAll();
+            Page<SurveyEntry> page = surveyRepository.findAll(PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id")));
+            while (true) {
+                for (SurveyEntry survey : page.getContent()) {
+                    writer.addDocument(toDocument(survey));
+                }
+                if (!page.hasNext()) {
+                    break;
+                }
+                page = surveyRepository.findAll(page.nextPageable());
+            }
+            publish();
+            logger.info("Rebuilt survey search index with {} surveys", writer.getDocStats().numDocs);
+        } catch (IOException e) {
+            logger.error("Failed to rebuild survey search index", e);
+        }
+    }
+
+    public void index(SurveyEntry survey) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            writer.updateDocument(new Term(ID, survey.getId().toString()), toDocument(survey));
+            publish();
+        } catch (IOException e) {
+            logger.error("Failed to index survey {}", survey.getId(), e);
+        }
+    }
+
+    /** Indexes several surveys with a single commit. */
+    public void indexAll(Collection<SurveyEntry> surveys) {
+        if (!enabled || surveys.isEmpty()) {
+            return;
+        }
+        try {
+            for (SurveyEntry survey : surveys) {
+                writer.updateDocument(new Term(ID, survey.getId().toString()), toDocument(survey));
+            }
+            publish();
+        } catch (IOException e) {
+            logger.error("Failed to index {} surveys", surveys.size(), e);
+        }
+    }
+
+    public void remove(Long surveyId) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            writer.deleteDocuments(new Term(ID, surveyId.toString()));
+            publish();
+        } catch (IOException e) {
+            logger.error("Failed to remove survey {} from search index", surveyId, e);
+        }
+    }
+
+    /** Whether {@link #search} can order hits by the given property ("relevance" included). */
+    public boolean canSortBy(String property) {
+        return SurveyService.SORT_RELEVANCE.equalsIgnoreCase(property) || SORTABLE.containsKey(property);
+    }
+
+    /**
+     * One page of the ids of surveys matching the given predicates, with the total
+     * number of matches. Every word of a text predicate must appear in its field,
+     * either exactly or as a prefix; creatorEmail and status, when given, must match
+     * exactly. Hits are ordered by sortBy (see {@link #canSortBy}) and then id;
+     * null values sort first ascending, as in SQL. Only the hits up to the end of the
+     * requested page are ranked, so memory follows the page position, not the match count.
+     *
+     * @return null if the index cannot answer the query (disabled, no searchable words or unsupported sort)
+     */
+    public Page<Long> search(String title, String description, String creatorEmail, SurveyStatus status,
+                             String sortBy, boolean descending, int page, int size) throws IOException {
+        if (!enabled || !canSortBy(sortBy)) {
+            return null;
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        boolean hasClauses = addFieldClauses(query, TITLE, title);
+        hasClauses |= addFieldClauses(query, DESCRIPTION, description);
+        if (!hasClauses) {
+            return null;
+        }
+        if (creatorEmail != null) {
+            query.add(new TermQuery(new Term(CREATOR, creatorEmail)), BooleanClause.Occur.FILTER);
+        }
+        if (status != null) {
+            query.add(new TermQuery(new Term(STATUS, String.valueOf(status.getCode()))), BooleanClause.Occur.FILTER);
+        }
+
+        PageRequest pageable = PageRequest.of(page, size);
+        long end = pageable.getOffset() + size;
+        if (end > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Page is out of range");
+        }
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            // Counting every hit keeps the total exact; only the top `end` are kept in memory
+            TopFieldCollector collector = TopFieldCollector.create(sort(sortBy, descending), (int) end, Integer.MAX_VALUE);
+            searcher.search(query.build(), collector);
+            TopDocs hits = collector.topDocs((int) pageable.getOffset(), size);
+            List<Long> ids = new ArrayList<>(hits.scoreDocs.length);
+            for (ScoreDoc hit : hits.scoreDocs) {
+                ids.add(Long.valueOf(searcher.doc(hit.doc).get(ID)));
+            }
+            return new PageImpl<>(ids, pageable, hits.totalHits.value);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private static org.apache.lucene.search.Sort sort(String sortBy, boolean descending) {
+        SortField idOrder = new SortField(SORT_PREFIX + "id", SortField.Type.LONG, descending);
+        if (SurveyService.SORT_RELEVANCE.equalsIgnoreCase(sortBy)) {
+            // Scores sort high to low by default; desc reverses the ranking
+            return new org.apache.lucene.search.Sort(new SortField(null, SortField.Type.SCORE, descending), idOrder);
+        }
+        SortField.Type type = SORTABLE.get(sortBy);
+        SortField field = new SortField(SORT_PREFIX + sortBy, type, descending);
+        field.setMissingValue(type == SortField.Type.LONG ? Long.MIN_VALUE : SortField.STRING_FIRST);
+        return "id".equals(sortBy)
+                ? new org.apache.lucene.search.Sort(field)
+                : new org.apache.lucene.search.Sort(field, idOrder);
+    }
+
+    private boolean addFieldClauses(BooleanQuery.Builder query, String field, String text) throws IOException {
+        if (text == null || text.trim().isEmpty()) {
+            return false;
+        }
+        boolean added = false;
+        try (TokenStream tokens = analyzer.tokenStream(field, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                String word = term.toString();
+                // Exact matches score (BM25); the prefix clause keeps "cust" matching "customer"
+                Query wordQuery = new BooleanQuery.Builder()
+                        .add(new BoostQuery(new TermQuery(new Term(field, word)), 2f), BooleanClause.Occur.SHOULD)
+                        .add(new PrefixQuery(new Term(field, word)), BooleanClause.Occur.SHOULD)
+                        .build();
+                query.add(wordQuery, BooleanClause.Occur.MUST);
+                added = true;
+            }
+            tokens.end();
+        }
+        return added;
+    }
+
+    private String storedFormat() {
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (FORMAT_KEY.equals(entry.getKey())) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private void publish() throws IOException {
+        writer.setLiveCommitData(Map.of(FORMAT_KEY, FORMAT).entrySet());
+        writer.commit();
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    private static Document toDocument(SurveyEntry survey) {
+        Document document = new Document();
+        document.add(new StringField(ID, survey.getId().toString(), Field.Store.YES));
+        document.add(new TextField(TITLE, survey.getTitle() == null ? "" : survey.getTitle(), Field.Store.NO));
+        document.add(new TextField(DESCRIPTION, survey.getDescription() == null ? "" : survey.getDescription(), Field.Store.NO));
+        if (survey.getCreatorEmail() != null) {
+            document.add(new StringField(CREATOR, survey.getCreatorEmail(), Field.Store.NO));
+        }
+        if (survey.getStatus() != null) {
+            document.add(new StringField(STATUS, String.valueOf(survey.getStatus().getCode()), Field.Store.NO));
+        }
+        document.add(new NumericDocValuesField(SORT_PREFIX + "id", survey.getId()));
+        if (survey.getCreatedAt() != null) {
+            document.add(new NumericDocValuesField(SORT_PREFIX + "createdAt", epochNanos(survey.getCreatedAt())));
+        }
+        addSortValue(document, "title", survey.getTitle());
+        addSortValue(document, "description", survey.getDescription());
+        addSortValue(document, "creatorEmail", survey.getCreatorEmail());
+        if (survey.getStatus() != null) {
+            addSortValue(document, "status", String.valueOf(survey.getStatus().getCode()));
+        }
+        return document;
+    }
+
+    private static void addSortValue(Document document, String property, String value) {
+        if (value != null) {
+            document.add(new SortedDocValuesField(SORT_PREFIX + property, new BytesRef(value)));
+        }
+    }
+
+    // Same resolution as the DATETIME(6) column, so ties fall through to id as they do in SQL
+    private static long epochNanos(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + value.getNano();
+    }
+}
@@ -1,28 +1,111 @@
 package com.examly.springapp.service;
 
+import com.examly.springapp.dto.CursorPage;
+import com.examly.springapp.dto.SurveySummary;
 import com.examly.springapp.model.SurveyEntry;
 import com.examly.springapp.model.SurveyResponse;
+import com.examly.springapp.model.SurveySchema;
+import com.examly.springapp.model.SurveyStatus;
 import com.examly.springapp.repository.SurveyRepository;
 import com.examly.springapp.repository.SurveyResponseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
 
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class SurveyService {
 
+    private static final Logger logger = LoggerFactory.getLogger(SurveyService.class);
+
+    /** Sort value for /filtered that orders text search hits by score. */
+    public static final String SORT_RELEVANCE = "relevance";
+
+    private static final KeysetPager.Definition<SurveyEntry> SURVEY_KEYSET =
+            new KeysetPager.Definition<>(SurveyEntry.class, SurveyEntry::getId)
+                    .key("createdAt", LocalDateTime.class, SurveyEntry::getCreatedAt);
+
+    private static final KeysetPager.Definition<SurveyResponse> RESPONSE_KEYSET =
+            new KeysetPager.Definition<>(SurveyResponse.class, SurveyResponse::getId)
+                    .key("submittedAt", LocalDateTime.class, SurveyResponse::getSubmittedAt);
+
     @Autowired
     private SurveyRepository surveyRepository;
     
     @Autowired
     private SurveyResponseRepository responseRepository;
 
+    @Autowired
+    private AggregationService aggregationService;
+
+    @Autowired
+    private AnswerStoreService answerStore;
+
+    @Autowired
+    private SurveySchemaService schemaService;
+
+    @Autowired
+    private AnswerValidator answerValidator;
+
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private SurveySearchService searchService;
+
+    @Autowired
+    private LiveSummaryPublisher liveSummaryPublisher;
+
+    @Autowired
+    private SurveyReadCache readCache;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private ResponseCountService responseCounts;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Stored responses, by whether they came one at a time or as a batch (write-behind, import)
+    private Counter submittedSingle;
+    private Counter submittedBatch;
+
+    // Surveys handed to SurveyPurgeService; they stop accepting responses until deleted
+    private final Set<Long> purging = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        submittedSingle = Counter.builder("responses.submitted").tag("mode", "single").register(meterRegistry);
+        submittedBatch = Counter.builder("responses.submitted").tag("mode", "batch").register(meterRegistry);
+    }
+
     public List<SurveyEntry> getAllSurveys() {
         return surveyRepository.findAll();
     }
@@ -33,6 +116,10 @@ public class SurveyService {
         return surveyRepository.findAll(pageable);
     }
     
+    public CursorPage<SurveyEntry> getSurveysByCursor(String cursor, int size, String sortBy, String sortDirection) {
+        return keysetPager.page(SURVEY_KEYSET, null, null, sortBy, sortDirection, cursor, size);
+    }
+    
     public Page<SurveyEntry> getSurveysWithFilters(
             String title, 
             String description, 
@@ -42,15 +129,98 @@ public class SurveyService {
             int size, 
             String sortBy, 
             String sortDirection) {
+        SurveyStatus statusFilter = parseStatus(status);
+        if (hasText(title) || hasText(description)) {
+            try {
+                Page<Long> hits = searchService.search(title, description, creatorEmail, statusFilter,
+                        sortBy, "desc".equalsIgnoreCase(sortDirection), page, size);
+                if (hits != null) {
+                    return loadSearchHits(hits, creatorEmail, statusFilter, sortBy, sortDirection);
+                }
+            } catch (IOException e) {
+                logger.error("Survey search failed, falling back to SQL filtering", e);
+            }
+        }
+        if (SORT_RELEVANCE.equalsIgnoreCase(sortBy)) {
+            sortBy = "id";
+        }
         Sort sort = createSort(sortBy, sortDirection);
         Pageable pageable = PageRequest.of(page, size, sort);
-        return surveyRepository.findSurveysWithFilters(title, description, creatorEmail, status, pageable);
+        return surveyRepository.findSurveysWithFilters(title, description, creatorEmail, statusFilter, pageable);
+    }
+
+    // The index has filtered, counted, sorted and paged the hits, so only the page's rows are
+    // loaded; the SQL keeps the exact filters so a row changed since it was indexed is not returned
+    private Page<SurveyEntry> loadSearchHits(Page<Long> hits, String creatorEmail, SurveyStatus status,
+                                             String sortBy, String sortDirection) {
+        Pageable pageable = SORT_RELEVANCE.equalsIgnoreCase(sortBy)
+                ? PageRequest.of(hits.getNumber(), hits.getSize())
+                : PageRequest.of(hits.getNumber(), hits.getSize(), createSort(sortBy, sortDirection));
+        if (!hits.hasContent()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, hits.getTotalElements());
+        }
+        Map<Long, SurveyEntry> byId = surveyRepository.findSurveysByIds(hits.getContent(), creatorEmail, status).stream()
+                .collect(Collectors.toMap(SurveyEntry::getId, Function.identity()));
+        List<SurveyEntry> content = new ArrayList<>(hits.getNumberOfElements());
+        for (Long id : hits.getContent()) {
+            SurveyEntry survey = byId.get(id);
+            if (survey != null) {
+                content.add(survey);
+            }
+        }
+        return new PageImpl<>(content, pageable, hits.getTotalElements());
     }
     
+    public Optional<SurveyReadCache.CachedJson> getCachedSurveyJson(Long id) {
+        return readCache.getSurvey(id);
+    }
+
+    public Optional<SurveyReadCache.RenderedSurvey> getRenderedSurvey(Long id) {
+        return readCache.getRendered(id);
+    }
+
+    public SurveyReadCache.CachedJson getCachedAllSurveysJson() {
+        return readCache.getAll();
+    }
+
     public Optional<SurveyEntry> getSurveyById(Long id) {
         return surveyRepository.findById(id);
     }
     
+    /**
+     * Checks that a survey is taking responses and that the answers fit its cached
+     * schema; the status comes from the same cache entry, so this reads no rows.
+     *
+     * @throws ResponseStatusException 404 if the survey does not exist or is archived,
+     *         409 if it is a draft or closed, 400 if the answers are invalid
+     */
+    public void validateResponse(Long surveyId, String answersJson) {
+        SurveySchema schema = validateAnswers(surveyId, answersJson);
+        SurveyStatus status = schema.getStatus();
+        if (status == SurveyStatus.ARCHIVED) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Survey not found");
+        }
+        if (status != null && status != SurveyStatus.ACTIVE) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Survey is " + status + " and not accepting responses");
+        }
+    }
+
+    /**
+     * Checks a response's answers against the survey's cached schema, whatever the
+     * survey's status. Used for imported responses, which may belong to closed surveys.
+     *
+     * @throws ResponseStatusException 404 if the survey does not exist, 400 if the answers are invalid
+     */
+    public SurveySchema validateAnswers(Long surveyId, String answersJson) {
+        if (purging.contains(surveyId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Survey not found");
+        }
+        SurveySchema schema = schemaService.findSchema(surveyId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Survey not found"));
+        answerValidator.validate(schema, answersJson);
+        return schema;
+    }
+    
     public List<SurveyEntry> getSurveysByCreator(String creatorEmail) {
         return surveyRepository.findByCreatorEmail(creatorEmail);
     }
@@ -64,47 +234,177 @@ public class SurveyService {
     public Page<SurveyEntry> getSurveysByStatus(String status, int page, int size, String sortBy, String sortDirection) {
         Sort sort = createSort(sortBy, sortDirection);
         Pageable pageable = PageRequest.of(page, size, sort);
-        return surveyRepository.findByStatus(status, pageable);
+        return surveyRepository.findByStatus(parseStatus(status), pageable);
     }
     
     public Page<SurveyEntry> getSurveysByCreatorAndStatus(String creatorEmail, String status, int page, int size, String sortBy, String sortDirection) {
         Sort sort = createSort(sortBy, sortDirection);
         Pageable pageable = PageRequest.of(page, size, sort);
-        return surveyRepository.findByCreatorEmailAndStatus(creatorEmail, status, pageable);
+        return surveyRepository.findByCreatorEmailAndStatus(creatorEmail, parseStatus(status), pageable);
     }
 
+    @Transactional
     public SurveyEntry createSurvey(SurveyEntry survey) {
-        return surveyRepository.save(survey);
+        schemaService.compile(survey.getQuestionsJson());
+        if (survey.getStatus() == null) {
+            survey.setStatus(SurveyStatus.ACTIVE);
+        } else if (!survey.getStatus().isInitial()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "New surveys must be DRAFT or ACTIVE");
+        }
+        survey.setVersion(null);
+        if (survey.getCreatedAt() == null) {
+            survey.setCreatedAt(LocalDateTime.now());
+        }
+        SurveyEntry saved = surveyRepository.save(survey);
+        dashboardService.surveysSaved(Collections.singletonList(saved));
+        afterCommit(() -> {
+            searchService.index(saved);
+            readCache.evict(null);
+        });
+        return saved;
     }
     
+    /** Creates several surveys in one transaction; the caller has already validated questionsJson. */
+    @Transactional
+    public List<SurveyEntry> createSurveys(List<SurveyEntry> surveys) {
+        for (SurveyEntry survey : surveys) {
+            survey.setVersion(null);
+            if (survey.getCreatedAt() == null) {
+                survey.setCreatedAt(LocalDateTime.now());
+            }
+        }
+        List<SurveyEntry> saved = surveyRepository.saveAll(surveys);
+        dashboardService.surveysSaved(saved);
+        afterCommit(() -> {
+            searchService.indexAll(saved);
+            readCache.evict(null);
+        });
+        return saved;
+    }
+
+    @Transactional
     public SurveyEntry updateSurvey(Long id, SurveyEntry surveyDetails) {
         Optional<SurveyEntry> survey = surveyRepository.findById(id);
         if (survey.isPresent()) {
+            schemaService.compile(surveyDetails.getQuestionsJson());
             SurveyEntry existingSurvey = survey.get();
+            // A missing status leaves it unchanged
+            SurveyStatus status = surveyDetails.getStatus() == null ? existingSurvey.getStatus() : surveyDetails.getStatus();
+            if (!existingSurvey.getStatus().canBecome(status)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Cannot change survey status from " + existingSurvey.getStatus() + " to " + status);
+            }
             existingSurvey.setTitle(surveyDetails.getTitle());
             existingSurvey.setDescription(surveyDetails.getDescription());
             existingSurvey.setQuestionsJson(surveyDetails.getQuestionsJson());
-            existingSurvey.setStatus(surveyDetails.getStatus());
-            return surveyRepository.save(existingSurvey);
+            existingSurvey.setStatus(status);
+            SurveyEntry saved = surveyRepository.saveAndFlush(existingSurvey);
+            dashboardService.surveysSaved(Collections.singletonList(saved));
+            afterCommit(() -> {
+                schemaService.refresh(saved);
+                searchService.index(saved);
+                readCache.evict(id);
+            });
+            return saved;
         }
         return null;
     }
     
+    /**
+     * Deletes a survey with its responses and aggregates in one transaction, using
+     * set-based DELETEs. Very large surveys should go through SurveyPurgeService.
+     */
+    @Transactional
     public boolean deleteSurvey(Long id) {
         if (surveyRepository.existsById(id)) {
             // Delete all responses first
-            List<SurveyResponse> responses = responseRepository.findBySurveyId(id);
-            responseRepository.deleteAll(responses);
+            answerStore.deleteSurvey(id);
+            responseRepository.deleteAllBySurveyId(id);
+            aggregationService.deleteSurvey(id);
+            dashboardService.surveyDeleted(id);
+            responseCounts.surveyDeleted(id);
             
             // Delete the survey
             surveyRepository.deleteById(id);
+            afterCommit(() -> {
+                schemaService.evict(id);
+                searchService.remove(id);
+                readCache.evict(id);
+                purging.remove(id);
+            });
             return true;
         }
         return false;
     }
+
+    /**
+     * Takes a survey out of service ahead of a background purge: it is marked
+     * ARCHIVED and dropped from the search index and read caches, and new
+     * responses are rejected.
+     */
+    @Transactional
+    public boolean archiveForPurge(Long id) {
+        Optional<SurveyEntry> survey = surveyRepository.findById(id);
+        if (survey.isEmpty()) {
+            return false;
+        }
+        survey.get().setStatus(SurveyStatus.ARCHIVED);
+        dashboardService.statusChanged(id, SurveyStatus.ARCHIVED);
+        afterCommit(() -> {
+            purging.add(id);
+            schemaService.refresh(survey.get());
+            searchService.remove(id);
+            readCache.evict(id);
+        });
+        return true;
+    }
+
+    /**
+     * Called when a background purge fails part way. The survey stays ARCHIVED, so
+     * it still rejects responses, but it is searchable again and can be deleted again.
+     */
+    public void purgeFailed(Long id) {
+        purging.remove(id);
+        surveyRepository.findById(id).ifPresent(survey -> {
+            schemaService.refresh(survey);
+            searchService.index(survey);
+            readCache.evict(id);
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
     
+    @Transactional
     public SurveyResponse submitResponse(SurveyResponse response) {
-        return responseRepository.save(response);
+        SurveyResponse saved = responseRepository.save(response);
+        aggregationService.record(Collections.singletonList(saved));
+        answerStore.record(Collections.singletonList(saved));
+        dashboardService.responsesAdded(Collections.singletonList(saved));
+        responseCounts.recordChange(saved.getSurveyId(), 1);
+        liveSummaryPublisher.surveyChanged(saved.getSurveyId());
+        afterCommit(submittedSingle::increment);
+        return saved;
+    }
+
+    @Transactional
+    public List<SurveyResponse> submitResponses(List<SurveyResponse> responses) {
+        List<SurveyResponse> saved = responseRepository.saveAll(responses);
+        aggregationService.record(saved);
+        answerStore.record(saved);
+        dashboardService.responsesAdded(saved);
+        saved.stream()
+                .collect(Collectors.groupingBy(SurveyResponse::getSurveyId, Collectors.counting()))
+                .forEach(responseCounts::recordChange);
+        afterCommit(() -> submittedBatch.increment(saved.size()));
+        saved.stream().map(SurveyResponse::getSurveyId).distinct().forEach(liveSummaryPublisher::surveyChanged);
+        return saved;
     }
     
     public List<SurveyResponse> getSurveyResponses(Long surveyId) {
@@ -117,16 +417,47 @@ public class SurveyService {
         return responseRepository.findBySurveyId(surveyId, pageable);
     }
     
+    public CursorPage<SurveyResponse> getSurveyResponsesByCursor(Long surveyId, String cursor, int size, String sortBy, String sortDirection) {
+        return keysetPager.page(RESPONSE_KEYSET, "e.surveyId = :surveyId", Map.of("surveyId", surveyId),
+                sortBy, sortDirection, cursor, size);
+    }
+    
     public Page<SurveyResponse> getResponsesByRespondentPaginated(String respondentEmail, int page, int size, String sortBy, String sortDirection) {
         Sort sort = createSort(sortBy, sortDirection);
         Pageable pageable = PageRequest.of(page, size, sort);
         return responseRepository.findByRespondentEmail(respondentEmail, pageable);
     }
     
+    public CursorPage<SurveyResponse> getResponsesByRespondentByCursor(String respondentEmail, String cursor, int size, String sortBy, String sortDirection) {
+        return keysetPager.page(RESPONSE_KEYSET, "e.respondentEmail = :email", Map.of("email", respondentEmail),
+                sortBy, sortDirection, cursor, size);
+    }
+    
+    public SurveySummary getSurveySummary(SurveyEntry survey) {
+        return aggregationService.getSummary(survey);
+    }
+
+    public List<SurveySummary.QuestionSummary> getQuestionStatistics(Long surveyId) {
+        return answerStore.getQuestionStatistics(surveyId);
+    }
+
     public long getSurveyResponseCount(Long surveyId) {
-        return responseRepository.countBySurveyId(surveyId);
+        return responseCounts.getCount(surveyId);
     }
     
+    // Status filters arrive as request parameters and path variables
+    private static SurveyStatus parseStatus(String status) {
+        try {
+            return SurveyStatus.fromString(status);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
     private Sort createSort(String sortBy, String sortDirection) {
         if (sortBy == null || sortBy.trim().isEmpty()) {
             sortBy = "id";
@@ -0,0 +1,15 @@
+-- Per-question answer tallies maintained by AggregationService
+
+CREATE TABLE question_aggregate (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    survey_id    BIGINT       NOT NULL,
+    question_id  VARCHAR(255) NOT NULL,
+    kind         VARCHAR(16)  NOT NULL,
+    bucket       VARCHAR(255) NOT NULL,
+    answer_count BIGINT       NOT NULL,
+    value_sum    DOUBLE       NOT NULL,
+    value_min    DOUBLE,
+    value_max    DOUBLE,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_question_aggregate_bucket UNIQUE (survey_id, question_id, kind, bucket)
+) ENGINE = InnoDB;
@@ -0,0 +1,5 @@
+-- Optimistic-lock version for SurveyEntry; existing rows start at 0
+
+ALTER TABLE survey_entry ADD COLUMN version BIGINT;
+
+UPDATE survey_entry SET version = 0 WHERE version IS NULL;
@@ -0,0 +1,36 @@
+-- Baseline: the schema Hibernate generated (ddl-auto) before Flyway was introduced.
+-- Existing databases are baselined at this version, so it must not change; later
+-- tables and columns go into their own migrations.
+
+CREATE TABLE app_user (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    full_name     VARCHAR(255) NOT NULL,
+    email         VARCHAR(255) NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    roles         VARCHAR(255) NOT NULL,
+    created_at    DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_app_user_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE survey_entry (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    title          VARCHAR(255),
+    description    VARCHAR(255),
+    questions_json TEXT,
+    responses_json TEXT,
+    creator_email  VARCHAR(255),
+    created_at     DATETIME(6),
+    status         VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE survey_response (
+    id               BIGINT       NOT NULL AUTO_INCREMENT,
+    survey_id        BIGINT,
+    answers_json     TEXT,
+    respondent_email VARCHAR(255),
+    submitted_at     DATETIME(6),
+    status           VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,17 @@
+-- Indexes for the repository finder methods and their default (id) ordering
+
+-- SurveyRepository.findByCreatorEmail
+CREATE INDEX idx_survey_creator ON survey_entry (creator_email, id);
+-- SurveyRepository.findByStatus
+CREATE INDEX idx_survey_status ON survey_entry (status, id);
+-- SurveyRepository.findByCreatorEmailAndStatus
+CREATE INDEX idx_survey_creator_status ON survey_entry (creator_email, status, id);
+-- Cursor pagination by creation time
+CREATE INDEX idx_survey_created ON survey_entry (created_at, id);
+
+-- SurveyResponseRepository.findBySurveyId / countBySurveyId / streamBySurveyId
+CREATE INDEX idx_response_survey ON survey_response (survey_id, id);
+-- Cursor pagination of a survey's responses by submission time
+CREATE INDEX idx_response_survey_submitted ON survey_response (survey_id, submitted_at, id);
+-- SurveyResponseRepository.findByRespondentEmail
+CREATE INDEX idx_response_respondent ON survey_response (respondent_email, id);
@@ -0,0 +1,26 @@
+-- Normalized answers (AnswerStoreService): one row per selected option, number or text answer.
+-- Rows for responses stored before this migration are written by the answer backfill
+-- (run once with --survey.answers.backfill=true).
+
+CREATE TABLE survey_answer (
+    id            BIGINT       NOT NULL,
+    response_id   BIGINT       NOT NULL,
+    survey_id     BIGINT       NOT NULL,
+    question_id   VARCHAR(255) NOT NULL,
+    kind          VARCHAR(16)  NOT NULL,
+    option_value  VARCHAR(255),
+    numeric_value DOUBLE,
+    text_value    TEXT,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- Per-question GROUP BY counts and option tallies
+CREATE INDEX idx_answer_survey_question ON survey_answer (survey_id, question_id, kind, option_value);
+-- Backfill anti-join and per-response lookups
+CREATE INDEX idx_answer_response ON survey_answer (response_id);
+
+CREATE TABLE survey_answer_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO survey_answer_seq (next_val) VALUES (1);
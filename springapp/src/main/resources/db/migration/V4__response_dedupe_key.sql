@@ -0,0 +1,6 @@
+-- Duplicate submissions (ResponseDeduplicationService): Idempotency-Key or respondent identity.
+-- NULLs are not compared, so responses without a key are unaffected.
+
+ALTER TABLE survey_response ADD COLUMN dedupe_key VARCHAR(320);
+
+CREATE UNIQUE INDEX uk_response_dedupe ON survey_response (survey_id, dedupe_key);
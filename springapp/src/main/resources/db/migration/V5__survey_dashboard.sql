@@ -0,0 +1,19 @@
+-- Per-creator dashboard summaries (DashboardService): one row per survey, kept current
+-- with the survey and its responses. Rows for existing surveys are written by the
+-- dashboard backfill at startup.
+
+CREATE TABLE survey_dashboard (
+    survey_id        BIGINT       NOT NULL,
+    creator_email    VARCHAR(255),
+    title            VARCHAR(255),
+    description      VARCHAR(255),
+    status           VARCHAR(255),
+    question_count   INT          NOT NULL,
+    response_count   BIGINT       NOT NULL,
+    last_response_at DATETIME(6),
+    created_at       DATETIME(6),
+    PRIMARY KEY (survey_id)
+) ENGINE = InnoDB;
+
+-- Dashboard read: a creator's surveys, newest first
+CREATE INDEX idx_dashboard_creator ON survey_dashboard (creator_email, created_at, survey_id);
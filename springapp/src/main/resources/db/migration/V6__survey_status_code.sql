@@ -0,0 +1,21 @@
+-- Survey lifecycle status (SurveyStatus) stored as a one-character code:
+-- D draft, A active, C closed, X archived. A missing status was treated as active;
+-- any other free-form value written before the lifecycle existed counts as closed.
+
+UPDATE survey_entry SET status = CASE
+    WHEN status IS NULL OR UPPER(status) = 'ACTIVE' THEN 'A'
+    WHEN UPPER(status) = 'DRAFT' THEN 'D'
+    WHEN UPPER(status) = 'ARCHIVED' THEN 'X'
+    ELSE 'C'
+END;
+
+UPDATE survey_dashboard SET status = CASE
+    WHEN status IS NULL OR UPPER(status) = 'ACTIVE' THEN 'A'
+    WHEN UPPER(status) = 'DRAFT' THEN 'D'
+    WHEN UPPER(status) = 'ARCHIVED' THEN 'X'
+    ELSE 'C'
+END;
+
+-- idx_survey_status and idx_survey_creator_status now index a single character
+ALTER TABLE survey_entry MODIFY status CHAR(1) NOT NULL;
+ALTER TABLE survey_dashboard MODIFY status CHAR(1);
@@ -0,0 +1,3 @@
+-- The survey-wide '*' RESPONSES row in question_aggregate is no longer written;
+-- summary totals come from the response count instead.
+DELETE FROM question_aggregate WHERE question_id = '*';
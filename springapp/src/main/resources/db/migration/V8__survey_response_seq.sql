@@ -0,0 +1,14 @@
+-- MySQL has no sequences; Hibernate emulates survey_response_seq with this table.
+-- Kept out of V1 so a schema that predates Flyway, which is baselined at V1, still
+-- gets it. The first value clears existing ids: Hibernate's pooled optimizer hands
+-- out the allocationSize (50) ids ending at the stored value.
+
+ALTER TABLE survey_response MODIFY id BIGINT NOT NULL;
+
+CREATE TABLE IF NOT EXISTS survey_response_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO survey_response_seq (next_val)
+SELECT next_val FROM (SELECT COALESCE(MAX(id), 0) + 50 AS next_val FROM survey_response) seed
+WHERE NOT EXISTS (SELECT 1 FROM survey_response_seq);
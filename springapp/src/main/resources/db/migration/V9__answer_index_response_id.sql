@@ -0,0 +1,5 @@
+-- SurveyAnswerRepository.countAnsweredByQuestion counts DISTINCT response_id per question;
+-- with response_id in idx_answer_survey_question it is answered from the index alone
+
+DROP INDEX idx_answer_survey_question ON survey_answer;
+CREATE INDEX idx_answer_survey_question ON survey_answer (survey_id, question_id, kind, option_value, response_id);
@@ -0,0 +1,141 @@
+package com.examly.springapp;
+
+import com.examly.springapp.configuration.ExecutionConfig;
+import com.examly.springapp.configuration.PermitDataSource;
+import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.model.SurveyResponse;
+import com.examly.springapp.service.SurveyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Real Tomcat so the request executor is installed. Virtual threads need Java 21+; on the
+// Java 17 toolchain this covers the permits and the platform-thread fallback only.
+// Live summaries are slowed down so no scheduled work holds a permit during the checks
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "survey.execution.mode=virtual",
+        "survey.db.permits=2",
+        "survey.db.permit-timeout=2s",
+        "survey.live.interval-ms=3600000"})
+@ActiveProfiles("test")
+public class ExecutionModeTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Autowired
+    private ExecutionConfig executionConfig;
+
+    @Test
+    public void testVirtualThreadsOnlyWhereTheJvmHasThem() {
+        assertEquals(Runtime.version().feature() >= 21, executionConfig.usesVirtualThreads());
+    }
+
+    @Test
+    public void testConnectionsAreLimitedToPermits() throws Exception {
+        PermitDataSource permits = assertInstanceOf(PermitDataSource.class, dataSource);
+        assertEquals(2, permits.getCapacity());
+
+        AtomicInteger inUse = new AtomicInteger();
+        AtomicInteger maxInUse = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(12);
+        try {
+            List<Callable<Boolean>> borrowers = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                borrowers.add(() -> {
+                    try (Connection connection = dataSource.getConnection()) {
+                        maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                        Thread.sleep(20);
+                        inUse.decrementAndGet();
+                        return connection.isValid(1);
+                    }
+                });
+            }
+            for (Future<Boolean> result : executor.invokeAll(borrowers)) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2, maxInUse.get());
+        assertEquals(2, permits.getAvailablePermits());
+
+        // Connections opened on one thread share its permit, as Hibernate's id generator needs
+        try (Connection outer = dataSource.getConnection(); Connection nested = dataSource.getConnection()) {
+            assertEquals(1, permits.getAvailablePermits());
+            nested.close();
+            // A second close must not count twice
+            nested.close();
+            assertEquals(1, permits.getAvailablePermits());
+        }
+        assertEquals(2, permits.getAvailablePermits());
+
+        // All permits held by other threads: the next caller times out instead of waiting forever
+        CountDownLatch held = new CountDownLatch(2);
+        CountDownLatch done = new CountDownLatch(1);
+        ExecutorService holders = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 2; i++) {
+                holders.submit(() -> {
+                    try (Connection connection = dataSource.getConnection()) {
+                        held.countDown();
+                        done.await();
+                    }
+                    return null;
+                });
+            }
+            assertTrue(held.await(5, TimeUnit.SECONDS));
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        } finally {
+            done.countDown();
+            holders.shutdown();
+            assertTrue(holders.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, permits.getAvailablePermits());
+    }
+
+    @Test
+    public void testConcurrentRespondentsQueueForPermits() throws Exception {
+        SurveyEntry survey = surveyService.createSurvey(new SurveyEntry("Burst", "", "[\"Q1\"]", "burst@example.com"));
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Callable<ResponseEntity<String>>> respondents = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                SurveyResponse response = new SurveyResponse(survey.getId(), "[\"a\"]", "burst-" + i + "@example.com");
+                respondents.add(() -> restTemplate.postForEntity(
+                        "/api/surveys/" + survey.getId() + "/respond", response, String.class));
+            }
+            for (Future<ResponseEntity<String>> result : executor.invokeAll(respondents)) {
+                assertEquals(HttpStatus.CREATED, result.get().getStatusCode());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(40, surveyService.getSurveyResponseCount(survey.getId()));
+    }
+}
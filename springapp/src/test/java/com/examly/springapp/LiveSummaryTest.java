@@ -0,0 +1,91 @@
+package com.examly.springapp;
+
+import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.model.SurveyResponse;
+import com.examly.springapp.service.SurveyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "survey.live.interval-ms=300")
+@ActiveProfiles("test")
+public class LiveSummaryTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Test
+    public void testSubmissionBurstIsPushedAsCoalescedSummaries() throws Exception {
+        SurveyEntry survey = surveyService.createSurvey(new SurveyEntry("Live", "", "[\"Q1\"]", "live@example.com"));
+
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        StompSession session = client.connect("ws://localhost:" + port + "/ws", new StompSessionHandlerAdapter() {})
+                .get(5, TimeUnit.SECONDS);
+
+        BlockingQueue<Map<?, ?>> received = new LinkedBlockingQueue<>();
+        List<Map<?, ?>> all = new CopyOnWriteArrayList<>();
+        session.subscribe("/topic/surveys/" + survey.getId(), new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                all.add((Map<?, ?>) payload);
+                received.add((Map<?, ?>) payload);
+            }
+        });
+
+        // The simple broker sends no receipts; submit until the subscription sees a push
+        int submissions = 0;
+        while (received.poll(500, TimeUnit.MILLISECONDS) == null) {
+            assertTrue(submissions < 20, "subscription never received a push");
+            surveyService.submitResponse(new SurveyResponse(survey.getId(), "[\"warmup\"]", "live@example.com"));
+            submissions++;
+        }
+        all.clear();
+        received.clear();
+
+        for (int i = 0; i < 30; i++, submissions++) {
+            surveyService.submitResponse(new SurveyResponse(survey.getId(), "[\"a" + i + "\"]", "live-" + i + "@example.com"));
+        }
+
+        long latestCount = -1;
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (latestCount != submissions && System.currentTimeMillis() < deadline) {
+            Map<?, ?> summary = received.poll(1, TimeUnit.SECONDS);
+            if (summary != null) {
+                latestCount = ((Number) summary.get("responseCount")).longValue();
+            }
+        }
+        assertEquals(submissions, latestCount);
+        assertTrue(all.size() < 30, "expected coalesced pushes, got " + all.size());
+        session.disconnect();
+        client.stop();
+    }
+}
@@ -0,0 +1,100 @@
+package com.examly.springapp;
+
+import com.examly.springapp.metrics.RequestStatementFilter;
+import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.model.SurveyResponse;
+import com.examly.springapp.service.SurveyService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.search.MeterNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Test contexts only get the simple registry unless metrics export is switched back on
+// A small statement budget so submitting a response goes over it
+@SpringBootTest(properties = {
+        "survey.sql.request-budget=4",
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.metrics.distribution.percentiles.http.server.requests=0.5,0.99"})
+@AutoConfigureMetrics
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Test
+    public void testEndpointRepositoryAndStatementMetrics() throws Exception {
+        SurveyEntry survey = surveyService.createSurvey(new SurveyEntry("Metrics", "", "[\"Q1\"]", "metrics@example.com"));
+        surveyService.submitResponse(new SurveyResponse(survey.getId(), "[\"a\"]", "r@example.com"));
+        assertTrue(meterRegistry.get("responses.submitted").tag("mode", "single").counter().count() >= 1);
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/surveys/" + survey.getId() + "/response-count"))
+                    .andExpect(status().isOk());
+        }
+
+        DistributionSummary statements = meterRegistry.get(RequestStatementFilter.METRIC)
+                .tag("uri", "/api/surveys/{id}/response-count")
+                .tag("status", "200")
+                .summary();
+        assertEquals(3, statements.count());
+        assertEquals(1, statements.totalAmount(), "only the first call reads the table");
+
+        assertThrows(MeterNotFoundException.class, () -> meterRegistry.get(RequestStatementFilter.EXCEEDED_METRIC)
+                .tag("uri", "/api/surveys/{id}/response-count").counter());
+        mockMvc.perform(post("/api/surveys/" + survey.getId() + "/respond")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"surveyId\":" + survey.getId() + ",\"answersJson\":\"[\\\"a\\\"]\"}"))
+                .andExpect(status().isCreated());
+        assertEquals(1, meterRegistry.get(RequestStatementFilter.EXCEEDED_METRIC)
+                .tag("uri", "/api/surveys/{id}/respond")
+                .tag("reason", "budget")
+                .counter().count());
+
+        Timer countQuery = meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "SurveyResponseRepository")
+                .tag("method", "countBySurveyId")
+                .timer();
+        assertTrue(countQuery.count() >= 1);
+
+        // Async requests finish on another thread; a sample here would read 0 statements and 200
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fullName\":\"Metrics\",\"email\":\"metrics-user@example.com\",\"password\":\"secret\"}"))
+                .andExpect(request().asyncStarted());
+        assertThrows(MeterNotFoundException.class, () -> meterRegistry.get(RequestStatementFilter.METRIC)
+                .tag("uri", "/api/auth/register").summary());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds{")))
+                .andExpect(content().string(containsString("quantile=\"0.99\"")))
+                .andExpect(content().string(containsString("http_server_requests_statements_count{")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_count{")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds")))
+                .andExpect(content().string(containsString("responses_submitted_total{mode=\"single\"")));
+    }
+}
@@ -1,12 +1,23 @@
 package com.examly.springapp;
 
+import com.examly.springapp.dto.CursorPage;
+import com.examly.springapp.metrics.StatementCounter;
 import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.model.SurveyResponse;
+import com.examly.springapp.model.SurveyStatus;
 import com.examly.springapp.service.SurveyService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,6 +28,9 @@ public class PaginationTest {
     @Autowired
     private SurveyService surveyService;
 
+    @Autowired
+    private StatementCounter statementCounter;
+
     @Test
     public void testPaginationAndSorting() {
         // Test pagination with default parameters
@@ -41,6 +55,126 @@ public class PaginationTest {
         assertTrue(surveys.getSize() <= 5);
     }
 
+    @Test
+    public void testFilteredSurveysTextSearch() {
+        SurveyEntry strong = surveyService.createSurvey(
+                new SurveyEntry("Quarterly warehouse audit", "Warehouse staff warehouse checklist", "[]", "search-a@example.com"));
+        SurveyEntry weak = surveyService.createSurvey(
+                new SurveyEntry("Warehouse feedback", "General feedback", "[]", "search-b@example.com"));
+        SurveyEntry other = surveyService.createSurvey(
+                new SurveyEntry("Office feedback", "Desks", "[]", "search-a@example.com"));
+
+        // Prefix match, case-insensitive
+        Page<SurveyEntry> prefix = surveyService.getSurveysWithFilters("wareh", null, null, null, 0, 10, "id", "asc");
+        List<Long> prefixIds = new ArrayList<>();
+        prefix.getContent().forEach(s -> prefixIds.add(s.getId()));
+        assertTrue(prefixIds.contains(strong.getId()));
+        assertTrue(prefixIds.contains(weak.getId()));
+        assertFalse(prefixIds.contains(other.getId()));
+
+        // Title and description both match the stronger survey
+        Page<SurveyEntry> ranked = surveyService.getSurveysWithFilters(
+                "warehouse", "warehouse", null, null, 0, 10, "relevance", "asc");
+        assertEquals(1, ranked.getTotalElements());
+        assertEquals(strong.getId(), ranked.getContent().get(0).getId());
+
+        // Exact filters still apply on top of the text hits
+        Page<SurveyEntry> byCreator = surveyService.getSurveysWithFilters(
+                "warehouse", "checklist", "search-a@example.com", null, 0, 10, "relevance", "asc");
+        assertEquals(1, byCreator.getTotalElements());
+        assertEquals(strong.getId(), byCreator.getContent().get(0).getId());
+
+        // Index follows updates and deletes
+        weak.setTitle("Canteen feedback");
+        surveyService.updateSurvey(weak.getId(), weak);
+        assertEquals(1, surveyService.getSurveysWithFilters(
+                null, "general", "search-b@example.com", null, 0, 10, "relevance", "asc").getTotalElements());
+        assertEquals(0, surveyService.getSurveysWithFilters(
+                "warehouse", null, "search-b@example.com", null, 0, 10, "relevance", "asc").getTotalElements());
+        surveyService.deleteSurvey(other.getId());
+        assertEquals(0, surveyService.getSurveysWithFilters(
+                "office", null, "search-a@example.com", null, 0, 10, "relevance", "asc").getTotalElements());
+    }
+
+    @Test
+    public void testFilteredSearchCountsEveryMatch() {
+        List<SurveyEntry> created = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            created.add(new SurveyEntry("Zephyr poll " + i, "", "[]", i % 3 == 0 ? "zephyr-a@example.com" : "zephyr-b@example.com"));
+        }
+        created = surveyService.createSurveys(created);
+        SurveyEntry closed = created.get(3);
+        closed.setStatus(SurveyStatus.CLOSED);
+        surveyService.updateSurvey(closed.getId(), closed);
+
+        Page<SurveyEntry> all = surveyService.getSurveysWithFilters("zephyr", null, null, null, 5, 5, "relevance", "asc");
+        assertEquals(30, all.getTotalElements());
+        assertEquals(5, all.getContent().size());
+
+        // creatorEmail and status filter inside the search, so the totals are exact
+        Page<SurveyEntry> byCreator = surveyService.getSurveysWithFilters(
+                "zephyr", null, "zephyr-a@example.com", null, 0, 4, "id", "asc");
+        assertEquals(10, byCreator.getTotalElements());
+        assertEquals(9, surveyService.getSurveysWithFilters(
+                "zephyr", null, "zephyr-a@example.com", "ACTIVE", 0, 4, "relevance", "asc").getTotalElements());
+        Page<SurveyEntry> byStatus = surveyService.getSurveysWithFilters(
+                "zephyr", null, null, "closed", 0, 4, "relevance", "asc");
+        assertEquals(1, byStatus.getTotalElements());
+        assertEquals(closed.getId(), byStatus.getContent().get(0).getId());
+    }
+
+    @Test
+    public void testFilteredSearchWithCommonPrefixLoadsOnePage() {
+        List<SurveyEntry> created = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            created.add(new SurveyEntry("Common poll " + (char) ('a' + i % 26) + i, "", "[]", "common@example.com"));
+        }
+        surveyService.createSurveys(created);
+
+        // Sorted and paged in the index: one query for the page's rows, no IN list of every hit, no COUNT
+        Page<SurveyEntry> first = QueryBudget.assertAtMost(statementCounter, 1, () ->
+                surveyService.getSurveysWithFilters("c", null, null, null, 0, 5, "id", "asc"));
+        assertTrue(first.getTotalElements() >= 60);
+        assertEquals(5, first.getContent().size());
+
+        List<Long> seen = new ArrayList<>();
+        for (int page = 0; page * 7 < first.getTotalElements(); page++) {
+            surveyService.getSurveysWithFilters("c", null, null, null, page, 7, "id", "asc")
+                    .forEach(survey -> seen.add(survey.getId()));
+        }
+        assertEquals(first.getTotalElements(), seen.size());
+        List<Long> sorted = new ArrayList<>(seen);
+        sorted.sort(Comparator.naturalOrder());
+        assertEquals(sorted, seen);
+
+        List<String> titles = new ArrayList<>();
+        surveyService.getSurveysWithFilters("common", null, "common@example.com", null, 0, 60, "title", "desc")
+                .forEach(survey -> titles.add(survey.getTitle()));
+        assertEquals(60, titles.size());
+        List<String> sortedTitles = new ArrayList<>(titles);
+        sortedTitles.sort(Comparator.reverseOrder());
+        assertEquals(sortedTitles, titles);
+    }
+
+    @Test
+    public void testOffsetPagesAreOneQueryPlusCount() {
+        SurveyEntry survey = surveyService.createSurvey(new SurveyEntry("Offset", "", "[\"Q1\"]", "offset@example.com"));
+        List<SurveyResponse> responses = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            responses.add(new SurveyResponse(survey.getId(), "[\"a\"]", "offset-" + i + "@example.com"));
+        }
+        surveyService.submitResponses(responses);
+
+        Page<SurveyResponse> page = QueryBudget.assertAtMost(statementCounter, 2, () ->
+                surveyService.getSurveyResponsesPaginated(survey.getId(), 1, 5, "id", "asc"));
+        assertEquals(12, page.getTotalElements());
+        assertEquals(5, page.getContent().size());
+        QueryBudget.assertAtMost(statementCounter, 2, () ->
+                surveyService.getSurveysByCreatorPaginated("offset@example.com", 0, 10, "id", "asc"));
+        QueryBudget.assertAtMost(statementCounter, 1, () ->
+                surveyService.getSurveysByCursor(null, 10, "createdAt", "desc"));
+    }
+
     @Test
     public void testSorting() {
         // Test sorting in ascending order
@@ -52,4 +186,77 @@ public class PaginationTest {
         assertNotNull(ascSurveys);
         assertNotNull(descSurveys);
     }
+
+    @Test
+    public void testCursorPaginationWalksEveryRowOnce() {
+        SurveyEntry survey = surveyService.createSurvey(new SurveyEntry("Cursor", "", "[\"Q1\"]", "cursor@example.com"));
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < 25; i++) {
+            SurveyResponse response = new SurveyResponse(survey.getId(), "[\"a" + i + "\"]", "cursor-respondent@example.com");
+            // Pairs of equal timestamps exercise the id tie-breaker
+            response.setSubmittedAt(start.plusMinutes(i / 2));
+            surveyService.submitResponse(response);
+        }
+
+        for (String direction : new String[]{"asc", "desc"}) {
+            List<Long> seen = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                String after = cursor;
+                // Keyset pages are one query each, however deep
+                CursorPage<SurveyResponse> page = QueryBudget.assertAtMost(statementCounter, 1, () ->
+                        surveyService.getSurveyResponsesByCursor(survey.getId(), after, 10, "submittedAt", direction));
+                page.content.forEach(r -> seen.add(r.getId()));
+                cursor = page.nextCursor;
+                pages++;
+            } while (cursor != null);
+
+            assertEquals(3, pages);
+            assertEquals(25, seen.size());
+            assertEquals(25, new HashSet<>(seen).size());
+            List<Long> sorted = new ArrayList<>(seen);
+            sorted.sort(direction.equals("asc") ? Comparator.naturalOrder() : Comparator.reverseOrder());
+            assertEquals(sorted, seen);
+        }
+
+        CursorPage<SurveyResponse> first = surveyService.getSurveyResponsesByCursor(survey.getId(), null, 10, "id", "asc");
+        assertThrows(ResponseStatusException.class, () ->
+                surveyService.getSurveyResponsesByCursor(survey.getId(), first.nextCursor, 10, "id", "desc"));
+        assertThrows(ResponseStatusException.class, () ->
+                surveyService.getSurveyResponsesByCursor(survey.getId(), "not-a-cursor", 10, "id", "asc"));
+    }
+
+    @Test
+    public void testCursorPaginationKeepsNullSortKeys() {
+        SurveyEntry survey = surveyService.createSurvey(new SurveyEntry("Null keys", "", "[\"Q1\"]", "nullkey@example.com"));
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Long> nullIds = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            SurveyResponse response = new SurveyResponse(survey.getId(), "[\"a\"]", "nullkey-" + i + "@example.com");
+            // Every other response predates the timestamp column
+            response.setSubmittedAt(i % 2 == 0 ? null : start.plusMinutes(i));
+            SurveyResponse saved = surveyService.submitResponse(response);
+            if (response.getSubmittedAt() == null) {
+                nullIds.add(saved.getId());
+            }
+        }
+
+        for (String direction : new String[]{"asc", "desc"}) {
+            List<Long> seen = new ArrayList<>();
+            String cursor = null;
+            do {
+                // Page size 2 puts cursors on null keys, on values and on the boundary between them
+                CursorPage<SurveyResponse> page = surveyService.getSurveyResponsesByCursor(
+                        survey.getId(), cursor, 2, "submittedAt", direction);
+                page.content.forEach(r -> seen.add(r.getId()));
+                cursor = page.nextCursor;
+            } while (cursor != null);
+
+            assertEquals(7, seen.size());
+            assertEquals(7, new HashSet<>(seen).size());
+            List<Long> nullsSeen = direction.equals("asc") ? seen.subList(0, 4) : seen.subList(3, 7);
+            assertEquals(new HashSet<>(nullIds), new HashSet<>(nullsSeen));
+        }
+    }
 }
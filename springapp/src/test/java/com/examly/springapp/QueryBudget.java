@@ -0,0 +1,50 @@
+package com.examly.springapp;
+
+import com.examly.springapp.metrics.StatementCounter;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Pins how many SQL statements a block of work may issue on the test thread,
+ * MockMvc requests included. Failures list every statement with its repeat count.
+ */
+final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    static void assertAtMost(StatementCounter counter, int max, Executable work) {
+        assertAtMost(counter, max, () -> {
+            work.execute();
+            return null;
+        });
+    }
+
+    static <T> T assertAtMost(StatementCounter counter, int max, ThrowingSupplier<T> work) {
+        T result;
+        StatementCounter.Recording recording = counter.start();
+        try {
+            result = work.get();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new AssertionError("Work under a statement budget failed", e);
+        } finally {
+            recording.close();
+        }
+        if (recording.count() > max) {
+            StringBuilder message = new StringBuilder()
+                    .append("Expected at most ").append(max).append(" SQL statements but ")
+                    .append(recording.count()).append(" were issued:");
+            for (Map.Entry<String, Integer> statement : recording.statements().entrySet()) {
+                message.append("\n  ").append(statement.getValue()).append("x ").append(statement.getKey());
+            }
+            fail(message.toString());
+        }
+        return result;
+    }
+}
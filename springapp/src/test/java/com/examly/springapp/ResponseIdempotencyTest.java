@@ -0,0 +1,147 @@
+package com.examly.springapp;
+
+import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.model.SurveyResponse;
+import com.examly.springapp.repository.SurveyResponseRepository;
+import com.examly.springapp.service.ResponseDeduplicationService;
+import com.examly.springapp.service.ResponseDeduplicationService.Submission;
+import com.examly.springapp.service.SurveyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "survey.responses.one-per-respondent=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ResponseIdempotencyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Autowired
+    private ResponseDeduplicationService deduplicationService;
+
+    @Autowired
+    private SurveyResponseRepository responseRepository;
+
+    @Test
+    public void testRetryWithSameIdempotencyKeyReturnsOriginal() throws Exception {
+        Long surveyId = createSurvey();
+
+        String first = respond(surveyId, null, "retry-1")
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(first).path("id").asLong();
+
+        respond(surveyId, null, "retry-1")
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(id))
+                .andExpect(jsonPath("$.dedupeKey").doesNotExist());
+        respond(surveyId, null, "retry-2").andExpect(status().isCreated());
+        respond(surveyId, null, null).andExpect(status().isCreated());
+        respond(surveyId, null, null).andExpect(status().isCreated());
+
+        assertEquals(4, surveyService.getSurveyResponseCount(surveyId));
+        respond(surveyId, null, "x".repeat(201)).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testOneResponsePerRespondentEmail() throws Exception {
+        Long surveyId = createSurvey();
+
+        String first = respond(surveyId, "Once@Example.com", null)
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(first).path("id").asLong();
+
+        respond(surveyId, "once@example.com", "another-key")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id));
+        respond(createSurvey(), "once@example.com", null).andExpect(status().isCreated());
+
+        assertEquals(1, surveyService.getSurveyResponseCount(surveyId));
+    }
+
+    @Test
+    public void testKeyMissingFromFilterIsCaughtByUniqueIndex() throws Exception {
+        Long surveyId = createSurvey();
+        // Stored without going through the filter, as before a restart
+        SurveyResponse stored = new SurveyResponse(surveyId, "[\"a\"]", null);
+        stored.setDedupeKey("k:from-before-restart");
+        stored = responseRepository.save(stored);
+
+        respond(surveyId, null, "from-before-restart")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(stored.getId()));
+        assertEquals(1, surveyService.getSurveyResponseCount(surveyId));
+    }
+
+    @Test
+    public void testConcurrentRetriesStoreOneResponse() throws Exception {
+        Long surveyId = createSurvey();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Submission>> attempts = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                attempts.add(() -> deduplicationService.submit(new SurveyResponse(surveyId, "[\"a\"]", null), "burst"));
+            }
+            int stored = 0;
+            Set<Long> ids = new HashSet<>();
+            for (Future<Submission> result : executor.invokeAll(attempts)) {
+                Submission submission = result.get();
+                ids.add(submission.getResponse().getId());
+                if (!submission.isDuplicate()) {
+                    stored++;
+                }
+            }
+            assertEquals(1, stored);
+            assertEquals(1, ids.size());
+            assertEquals(1, surveyService.getSurveyResponseCount(surveyId));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Long createSurvey() {
+        return surveyService.createSurvey(new SurveyEntry("Retries", "", "[\"Q1\"]", "retry@example.com")).getId();
+    }
+
+    private ResultActions respond(Long surveyId, String email, String idempotencyKey) throws Exception {
+        SurveyResponse response = new SurveyResponse(surveyId, "[\"a\"]", email);
+        MockHttpServletRequestBuilder request = post("/api/surveys/" + surveyId + "/respond")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(response));
+        if (idempotencyKey != null) {
+            request.header("Idempotency-Key", idempotencyKey);
+        }
+        return mockMvc.perform(request);
+    }
+}
@@ -0,0 +1,66 @@
+package com.examly.springapp;
+
+import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.model.SurveyResponse;
+import com.examly.springapp.service.ResponseIngestionService;
+import com.examly.springapp.service.SurveyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"survey.ingest.mode=write-behind", "survey.ingest.batch-size=25"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ResponseIngestionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Autowired
+    private ResponseIngestionService ingestionService;
+
+    @Test
+    public void testSubmissionsAreAcceptedAndWrittenInBatches() throws Exception {
+        SurveyEntry survey = surveyService.createSurvey(new SurveyEntry("Blast", "", "[\"Q1\"]", "owner@example.com"));
+        String body = objectMapper.writeValueAsString(new SurveyResponse(null, "[\"yes\"]", "r@example.com"));
+
+        for (int i = 0; i < 120; i++) {
+            mockMvc.perform(post("/api/surveys/" + survey.getId() + "/respond")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.id").doesNotExist());
+        }
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (surveyService.getSurveyResponseCount(survey.getId()) < 120 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(120, surveyService.getSurveyResponseCount(survey.getId()));
+        assertEquals(0, ingestionService.getQueueDepth());
+    }
+
+    @Test
+    public void testUnknownSurveyIsRejectedBeforeQueueing() throws Exception {
+        mockMvc.perform(post("/api/surveys/999999/respond")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"answersJson\":\"[]\"}"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,134 @@
+package com.examly.springapp;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the repository finder queries are served by an index, both on the
+ * schema Hibernate generates from the entities and on the schema built by the
+ * Flyway migrations (run against H2 in MySQL mode).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class SchemaIndexTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testEntitySchemaUsesIndexesForFinderQueries() {
+        assertFinderQueriesUseIndexes(jdbcTemplate);
+    }
+
+    @Test
+    public void testMigratedSchemaUsesIndexesForFinderQueries() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:migrations;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .load();
+        assertTrue(flyway.migrate().migrationsExecuted >= 2);
+
+        assertFinderQueriesUseIndexes(new JdbcTemplate(dataSource));
+    }
+
+    @Test
+    public void testStatusMigrationMapsLegacyValues() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:status-migration;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").target("5").load().migrate();
+        jdbc.update("INSERT INTO survey_entry (title, status) VALUES ('a', 'ACTIVE'), ('b', 'draft'), " +
+                "('c', 'ARCHIVED'), ('d', 'COMPLETED'), ('e', NULL)");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+        assertEquals(List.of("A", "D", "X", "C", "A"),
+                jdbc.queryForList("SELECT status FROM survey_entry ORDER BY title", String.class));
+        assertUsesIndex(jdbc, "idx_survey_status", "SELECT * FROM survey_entry WHERE status = 'A' ORDER BY id");
+    }
+
+    @Test
+    public void testBaselinedSchemaMigratesToCurrentSchema() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:baseline-migration;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        // A schema created by Hibernate before Flyway, with data but no history table
+        new ResourceDatabasePopulator(new ClassPathResource("db/pre-flyway-schema.sql")).execute(dataSource);
+        jdbc.update("INSERT INTO survey_entry (title, status) VALUES ('a', 'ACTIVE')");
+        jdbc.update("INSERT INTO survey_response (id, survey_id, status) VALUES (1, 1, 'COMPLETED'), (120, 1, 'COMPLETED')");
+
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration")
+                .baselineOnMigrate(true).load().migrate();
+
+        JdbcDataSource fresh = new JdbcDataSource();
+        fresh.setURL("jdbc:h2:mem:fresh-migration;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        fresh.setUser("sa");
+        Flyway.configure().dataSource(fresh).locations("classpath:db/migration").load().migrate();
+
+        assertEquals(columns(new JdbcTemplate(fresh)), columns(jdbc));
+        assertEquals(170L, jdbc.queryForObject("SELECT next_val FROM survey_response_seq", Long.class));
+        assertEquals(0L, jdbc.queryForObject("SELECT version FROM survey_entry", Long.class));
+        assertEquals("A", jdbc.queryForObject("SELECT status FROM survey_entry", String.class));
+    }
+
+    private static List<String> columns(JdbcTemplate jdbc) {
+        return jdbc.queryForList("SELECT CONCAT(table_name, '.', column_name, ' ', data_type, ' ', is_nullable) " +
+                "FROM information_schema.columns WHERE table_schema = 'public' " +
+                "AND table_name <> 'flyway_schema_history' ORDER BY table_name, column_name", String.class);
+    }
+
+    private void assertFinderQueriesUseIndexes(JdbcTemplate jdbc) {
+        // findByCreatorEmail(email, pageable) sorted by id
+        assertUsesIndex(jdbc, "idx_survey_creator",
+                "SELECT * FROM survey_entry WHERE creator_email = 'a@example.com' ORDER BY id");
+        // findByStatus(status, pageable)
+        assertUsesIndex(jdbc, "idx_survey_status",
+                "SELECT * FROM survey_entry WHERE status = 'A' ORDER BY id");
+        // findByCreatorEmailAndStatus(email, status, pageable)
+        assertUsesIndex(jdbc, "idx_survey_creator",
+                "SELECT * FROM survey_entry WHERE creator_email = 'a@example.com' AND status = 'A' ORDER BY id");
+        // findBySurveyId / streamBySurveyId
+        assertUsesIndex(jdbc, "idx_response_survey",
+                "SELECT * FROM survey_response WHERE survey_id = 1 ORDER BY id");
+        // countBySurveyId
+        assertUsesIndex(jdbc, "idx_response_survey",
+                "SELECT COUNT(id) FROM survey_response WHERE survey_id = 1");
+        // findByRespondentEmail(email, pageable)
+        assertUsesIndex(jdbc, "idx_response_respondent",
+                "SELECT * FROM survey_response WHERE respondent_email = 'r@example.com' ORDER BY id");
+        // findBySurveyIdAndDedupeKey(surveyId, key)
+        assertUsesIndex(jdbc, "uk_response_dedupe",
+                "SELECT * FROM survey_response WHERE survey_id = 1 AND dedupe_key = 'k:abc'");
+        // SurveyAnswerRepository.countAnsweredByQuestion(surveyId)
+        assertUsesIndex(jdbc, "idx_answer_survey_question",
+                "SELECT question_id, COUNT(DISTINCT response_id) FROM survey_answer WHERE survey_id = 1 GROUP BY question_id");
+        // findByCreatorEmailOrderByCreatedAtDescSurveyIdDesc(email)
+        assertUsesIndex(jdbc, "idx_dashboard_creator",
+                "SELECT * FROM survey_dashboard WHERE creator_email = 'a@example.com' ORDER BY created_at DESC, survey_id DESC");
+    }
+
+    private static void assertUsesIndex(JdbcTemplate jdbc, String indexPrefix, String sql) {
+        String plan = jdbc.queryForObject("EXPLAIN " + sql, String.class).toLowerCase(Locale.ROOT);
+        assertFalse(plan.contains("tablescan"), () -> "Full scan for: " + sql + "\n" + plan);
+        assertTrue(plan.contains(indexPrefix), () -> "Expected " + indexPrefix + " for: " + sql + "\n" + plan);
+    }
+}
@@ -0,0 +1,183 @@
+package com.examly.springapp;
+
+import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.model.SurveyResponse;
+import com.examly.springapp.service.SurveyService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Small chunks so every scan is split across several fork/join tasks
+@SpringBootTest(properties = {"survey.analytics.parallelism=3", "survey.analytics.chunk-size=4"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class SurveyAnalyticsTest {
+
+    private static final String[] PLANS = {"Free", "Pro"};
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 6, 9, 30);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Test
+    public void testCrosstabAndTrendMatchSequentialCounts() throws Exception {
+        SurveyEntry survey = surveyService.createSurvey(new SurveyEntry("Analytics", "",
+                "[{\"id\":\"plan\",\"type\":\"single\",\"options\":[\"Free\",\"Pro\"]},"
+                        + "{\"id\":\"score\",\"type\":\"rating\",\"min\":1,\"max\":5},"
+                        + "{\"id\":\"extras\",\"type\":\"multiple\",\"options\":[\"A\",\"B\"]},"
+                        + "{\"id\":\"note\",\"type\":\"text\"}]",
+                "analytics@example.com"));
+
+        long[][] planByScore = new long[2][5];
+        long[] perDay = new long[3];
+        double[] scoreSumPerDay = new double[3];
+        List<SurveyResponse> responses = new ArrayList<>();
+        for (int i = 0; i < 27; i++) {
+            int plan = i % 2;
+            int score = i % 5 + 1;
+            int day = i % 3;
+            String answers = "{\"plan\":\"" + PLANS[plan] + "\",\"score\":" + score
+                    + ",\"extras\":" + (i % 4 == 0 ? "[\"A\",\"B\"]" : "[]") + "}";
+            SurveyResponse response = new SurveyResponse(survey.getId(), answers, "a" + i + "@example.com");
+            response.setSubmittedAt(START.plusDays(day).plusMinutes(i));
+            responses.add(response);
+            planByScore[plan][score - 1]++;
+            perDay[day]++;
+            scoreSumPerDay[day] += score;
+        }
+        // Not answered, so counted as scanned but not matched
+        responses.add(new SurveyResponse(survey.getId(), "{\"note\":\"skipped\"}", "skip@example.com"));
+        responses.get(responses.size() - 1).setSubmittedAt(START);
+        perDay[0]++;
+        surveyService.submitResponses(responses);
+
+        String body = mockMvc.perform(get("/api/surveys/" + survey.getId() + "/analytics/crosstab")
+                .param("row", "plan")
+                .param("column", "score"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows[1]").value("Pro"))
+                .andExpect(jsonPath("$.columns[4]").value("5"))
+                .andExpect(jsonPath("$.responsesScanned").value(28))
+                .andExpect(jsonPath("$.responsesMatched").value(27))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode counts = objectMapper.readTree(body).path("counts");
+        for (int p = 0; p < 2; p++) {
+            for (int s = 0; s < 5; s++) {
+                assertEquals(planByScore[p][s], counts.get(p).get(s).asLong(), "plan " + p + " score " + (s + 1));
+            }
+        }
+
+        // Multi-select: both options of a response count together
+        mockMvc.perform(get("/api/surveys/" + survey.getId() + "/analytics/crosstab")
+                .param("row", "extras")
+                .param("column", "plan"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.counts[0][0]").value(7))
+                .andExpect(jsonPath("$.counts[1][0]").value(7))
+                .andExpect(jsonPath("$.counts[0][1]").value(0))
+                .andExpect(jsonPath("$.responsesMatched").value(7));
+
+        body = mockMvc.perform(get("/api/surveys/" + survey.getId() + "/analytics/trend")
+                .param("interval", "day")
+                .param("questionId", "score"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.buckets.length()").value(3))
+                .andExpect(jsonPath("$.buckets[0].start").value("2024-05-06T00:00:00"))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode buckets = objectMapper.readTree(body).path("buckets");
+        for (int day = 0; day < 3; day++) {
+            JsonNode bucket = buckets.get(day);
+            assertEquals(perDay[day], bucket.path("responses").asLong());
+            assertEquals(scoreSumPerDay[day] / 9, bucket.path("mean").asDouble(), 1e-9);
+            long optionTotal = 0;
+            for (JsonNode count : bucket.path("options")) {
+                optionTotal += count.asLong();
+            }
+            assertEquals(9, optionTotal);
+        }
+
+        mockMvc.perform(get("/api/surveys/" + survey.getId() + "/analytics/trend").param("interval", "week"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.buckets.length()").value(1))
+                .andExpect(jsonPath("$.buckets[0].responses").value(28))
+                .andExpect(jsonPath("$.buckets[0].options").doesNotExist());
+    }
+
+    @Test
+    public void testRepeatedOptionsAreOneCategory() throws Exception {
+        SurveyEntry survey = surveyService.createSurvey(new SurveyEntry("Analytics repeats", "",
+                "[{\"id\":\"pick\",\"type\":\"single\",\"options\":[\"A\",\"B\",\"A\"]},"
+                        + "{\"id\":\"plan\",\"type\":\"single\",\"options\":[\"Free\",\"Pro\"]}]",
+                "analytics@example.com"));
+        List<SurveyResponse> responses = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            String answers = "{\"pick\":\"" + (i % 3 == 0 ? "B" : "A") + "\",\"plan\":\"" + PLANS[i % 2] + "\"}";
+            SurveyResponse response = new SurveyResponse(survey.getId(), answers, "rep" + i + "@example.com");
+            response.setSubmittedAt(START);
+            responses.add(response);
+        }
+        surveyService.submitResponses(responses);
+        String base = "/api/surveys/" + survey.getId() + "/analytics";
+
+        // Rows: A (i = 1, 2, 4, 5, 7, 8), B (i = 0, 3, 6)
+        mockMvc.perform(get(base + "/crosstab").param("row", "pick").param("column", "plan"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows.length()").value(2))
+                .andExpect(jsonPath("$.counts[0][0]").value(3))
+                .andExpect(jsonPath("$.counts[0][1]").value(3))
+                .andExpect(jsonPath("$.counts[1][0]").value(2))
+                .andExpect(jsonPath("$.counts[1][1]").value(1))
+                .andExpect(jsonPath("$.rowTotals[0]").value(6));
+        mockMvc.perform(get(base + "/crosstab").param("row", "plan").param("column", "pick"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.columns.length()").value(2))
+                .andExpect(jsonPath("$.columnTotals[1]").value(3));
+        mockMvc.perform(get(base + "/trend").param("interval", "day").param("questionId", "pick"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.buckets[0].options.A").value(6))
+                .andExpect(jsonPath("$.buckets[0].options.B").value(3));
+    }
+
+    @Test
+    public void testAnalyticsRejectsBadParameters() throws Exception {
+        SurveyEntry survey = surveyService.createSurvey(new SurveyEntry("Analytics errors", "",
+                "[{\"id\":\"plan\",\"type\":\"single\",\"options\":[\"Free\",\"Pro\"]},{\"id\":\"note\",\"type\":\"text\"}]",
+                "analytics@example.com"));
+        String base = "/api/surveys/" + survey.getId() + "/analytics";
+
+        mockMvc.perform(get(base + "/crosstab").param("row", "plan").param("column", "note"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(base + "/crosstab").param("row", "plan").param("column", "missing"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(base + "/trend").param("interval", "fortnight"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(base + "/trend").param("interval", "hour")
+                .param("from", "2024-01-01T00:00:00").param("to", "2024-12-31T00:00:00"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(base + "/trend"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.buckets.length()").value(0));
+        mockMvc.perform(get("/api/surveys/999999/analytics/crosstab").param("row", "a").param("column", "b"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,15 +1,51 @@
 package com.examly.springapp;
 
+import com.examly.springapp.metrics.StatementCounter;
 import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.model.SurveyResponse;
+import com.examly.springapp.model.SurveyStatus;
+import com.examly.springapp.model.User;
+import com.examly.springapp.repository.SurveyDashboardRepository;
+import com.examly.springapp.repository.SurveyRepository;
+import com.examly.springapp.repository.SurveyResponseRepository;
+import com.examly.springapp.repository.UserRepository;
+import com.examly.springapp.security.JwtUtil;
+import com.examly.springapp.security.PrincipalCache;
+import com.examly.springapp.service.AnswerStoreService;
+import com.examly.springapp.service.DashboardService;
+import com.examly.springapp.service.PasswordHashingService;
+import com.examly.springapp.service.ResponseCountService;
+import com.examly.springapp.service.SurveySchemaService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -23,6 +59,42 @@ public class SurveyAppApplicationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AnswerStoreService answerStore;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private SurveyDashboardRepository dashboardRepository;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private ResponseCountService responseCounts;
+
+    @Autowired
+    private SurveyResponseRepository responseRepository;
+
+    @Autowired
+    private SurveyRepository surveyRepository;
+
+    @Autowired
+    private SurveySchemaService schemaService;
+
     // 1. Test valid survey creation
     @Test
     public void testCreateSurveySuccessfully() throws Exception {
@@ -129,4 +201,583 @@ public class SurveyAppApplicationTest {
                 .content(badJson))
                 .andExpect(status().isBadRequest());
     }
+
+    // 9. Test responses can be exported as CSV with one column per question
+    @Test
+    public void testExportResponsesAsCsv() throws Exception {
+        long surveyId = createSurvey("Export Survey", "[\"Favourite colour?\", \"Any comments?\"]");
+        submitResponse(surveyId, "{\"q1\":\"Blue\",\"q2\":\"Fast, friendly\"}");
+        submitResponse(surveyId, "[\"Red\",\"None\"]");
+
+        mockMvc.perform(get("/api/surveys/" + surveyId + "/responses/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith("text/csv")))
+                .andExpect(content().string(startsWith(
+                        "id,surveyId,respondentEmail,submittedAt,status,Favourite colour?,Any comments?\r\n")))
+                .andExpect(content().string(containsString(",Blue,\"Fast, friendly\"\r\n")))
+                .andExpect(content().string(containsString(",Red,None\r\n")));
+    }
+
+    // 10. Test NDJSON export emits one object per line and rejects unknown formats
+    @Test
+    public void testExportResponsesAsNdjson() throws Exception {
+        long surveyId = createSurvey("NDJSON Survey", "[\"Q1\"]");
+        submitResponse(surveyId, "{\"q1\":\"yes\"}");
+        submitResponse(surveyId, "{\"q1\":\"no\"}");
+
+        String body = mockMvc.perform(get("/api/surveys/" + surveyId + "/responses/export").param("format", "ndjson"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("no", objectMapper.readTree(lines[1]).path("answers").path("q1").asText());
+
+        mockMvc.perform(get("/api/surveys/" + surveyId + "/responses/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/surveys/999999/responses/export"))
+                .andExpect(status().isNotFound());
+    }
+
+    // 11. Test summary tallies options, ratings and free text as responses arrive
+    @Test
+    public void testSurveySummaryAggregatesAnswers() throws Exception {
+        long surveyId = createSurvey("Summary Survey",
+                "[{\"id\":\"colour\",\"text\":\"Colour?\",\"type\":\"single\",\"options\":[\"Red\",\"Blue\"]},"
+                        + "{\"id\":\"score\",\"text\":\"Score?\",\"type\":\"rating\"},"
+                        + "\"Comments?\"]");
+        submitResponse(surveyId, "{\"colour\":\"Red\",\"score\":4,\"q3\":\"Great\"}");
+        submitResponse(surveyId, "{\"colour\":\"Red\",\"score\":\"2\"}");
+
+        // First read loads the tallies from the table, later submissions update them in memory
+        mockMvc.perform(get("/api/surveys/" + surveyId + "/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responseCount").value(2));
+        submitResponse(surveyId, "{\"colour\":\"Blue\",\"score\":5}");
+
+        mockMvc.perform(get("/api/surveys/" + surveyId + "/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responseCount").value(3))
+                .andExpect(jsonPath("$.questions[0].options.Red").value(2))
+                .andExpect(jsonPath("$.questions[0].options.Blue").value(1))
+                .andExpect(jsonPath("$.questions[1].numeric.count").value(3))
+                .andExpect(jsonPath("$.questions[1].numeric.min").value(2.0))
+                .andExpect(jsonPath("$.questions[1].numeric.max").value(5.0))
+                .andExpect(jsonPath("$.questions[2].textAnswers").value(1));
+    }
+
+    // 12. Test questionsJson is compiled and rejected when it is not a valid question list
+    @Test
+    public void testCreateSurveyRejectsInvalidQuestions() throws Exception {
+        String[] invalid = {
+                "{\"q\":1}",
+                "[{\"id\":\"a\",\"type\":\"hologram\"}]",
+                "[{\"id\":\"a\"},{\"id\":\"a\"}]",
+                "[{\"id\":\"a\",\"type\":\"rating\",\"min\":5,\"max\":1}]"
+        };
+        for (String questionsJson : invalid) {
+            SurveyEntry entry = new SurveyEntry();
+            entry.setTitle("Invalid");
+            entry.setQuestionsJson(questionsJson);
+
+            mockMvc.perform(post("/api/surveys/create")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(entry)))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    // 13. Test answers are validated against the survey's questions on submit
+    @Test
+    public void testSubmitResponseValidatesAnswers() throws Exception {
+        long surveyId = createSurvey("Validated Survey",
+                "[{\"id\":\"plan\",\"type\":\"single\",\"options\":[\"Free\",\"Pro\"],\"required\":true},"
+                        + "{\"id\":\"score\",\"type\":\"rating\",\"min\":1,\"max\":5},"
+                        + "{\"id\":\"extras\",\"type\":\"multiple\",\"options\":[\"A\",\"B\"]}]");
+        String[] invalid = {
+                "{\"score\":3}",
+                "{\"plan\":\"Enterprise\"}",
+                "{\"plan\":\"Pro\",\"score\":9}",
+                "{\"plan\":\"Pro\",\"score\":\"high\"}",
+                "{\"plan\":\"Pro\",\"extras\":[\"A\",\"C\"]}",
+                "{\"plan\":\"Pro\",\"colour\":\"Red\"}",
+                "[\"Pro\",3,[\"A\"],\"extra\"]",
+                "{\"plan\":"
+        };
+        for (String answersJson : invalid) {
+            mockMvc.perform(post("/api/surveys/" + surveyId + "/respond")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new SurveyResponse(surveyId, answersJson, "r@example.com"))))
+                    .andExpect(status().isBadRequest());
+        }
+
+        submitResponse(surveyId, "{\"plan\":\"Pro\",\"score\":5,\"extras\":[\"A\",\"B\"]}");
+        submitResponse(surveyId, "[\"Free\",null,[]]");
+        mockMvc.perform(get("/api/surveys/" + surveyId + "/response-count"))
+                .andExpect(jsonPath("$.count").value(2));
+    }
+
+    // 14. Test bearer tokens resolve from cache and user changes invalidate it
+    @Test
+    public void testPrincipalCacheHitsAndInvalidation() {
+        User user = userRepository.save(new User("Cache User", "cache-user@example.com", "hash", "USER"));
+        String token = JwtUtil.generateToken(user.getEmail());
+
+        double hitsBefore = meterRegistry.get("cache.gets").tag("cache", "jwt.principals").tag("result", "hit")
+                .functionCounter().count();
+        assertTrue(principalCache.authenticate(token).isPresent());
+        assertTrue(principalCache.authenticate(token).isPresent());
+        double hitsAfter = meterRegistry.get("cache.gets").tag("cache", "jwt.principals").tag("result", "hit")
+                .functionCounter().count();
+        assertEquals(1.0, hitsAfter - hitsBefore);
+
+        user.setEmail("cache-user-renamed@example.com");
+        userRepository.save(user);
+        assertFalse(principalCache.authenticate(token).isPresent());
+
+        // A lookup racing the delete caches the still-committed row; the commit evicts it again
+        assertTrue(principalCache.findPrincipal("cache-user-renamed@example.com").isPresent());
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userRepository.delete(userRepository.findById(user.getId()).orElseThrow());
+            userRepository.flush();
+            principalCache.evict("cache-user-renamed@example.com");
+            assertTrue(CompletableFuture.supplyAsync(() -> principalCache.findPrincipal("cache-user-renamed@example.com"))
+                    .join().isPresent());
+        });
+        assertFalse(principalCache.findPrincipal("cache-user-renamed@example.com").isPresent());
+        assertThrows(JwtException.class, () -> principalCache.authenticate(token + "x"));
+    }
+
+    // 15. Test register and login complete asynchronously on the hashing pool
+    @Test
+    public void testRegisterAndLoginAsync() throws Exception {
+        String credentials = "{\"fullName\":\"Async User\",\"email\":\"async-user@example.com\",\"password\":\"secret\"}";
+        MvcResult registered = mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(credentials))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(registered))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.token").exists());
+
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(credentials))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(login))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("async-user@example.com"));
+
+        MvcResult badLogin = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"async-user@example.com\",\"password\":\"wrong\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(badLogin))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // 16. Test a saturated hashing pool fails fast with 503
+    @Test
+    public void testPasswordHashingRejectsWhenSaturated() {
+        PasswordHashingService hashing = new PasswordHashingService(1, 1, new SimpleMeterRegistry());
+        List<CompletableFuture<String>> hashes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            hashes.add(hashing.encode("password" + i));
+        }
+        long unavailable = hashes.stream().filter(future -> {
+            try {
+                future.join();
+                return false;
+            } catch (CompletionException e) {
+                return e.getCause() instanceof ResponseStatusException
+                        && ((ResponseStatusException) e.getCause()).getStatus() == HttpStatus.SERVICE_UNAVAILABLE;
+            }
+        }).count();
+        assertTrue(unavailable >= 1);
+        assertTrue(unavailable <= 8);
+    }
+
+    // 17. Test survey GETs carry ETags and answer If-None-Match with 304
+    @Test
+    public void testSurveyEtagConditionalGet() throws Exception {
+        long surveyId = createSurvey("Etag Survey", "[\"Q1\"]");
+
+        String etag = mockMvc.perform(get("/api/surveys/" + surveyId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.title").value("Etag Survey"))
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/surveys/" + surveyId).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        String allEtag = mockMvc.perform(get("/api/surveys/all"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/surveys/all").header("If-None-Match", allEtag))
+                .andExpect(status().isNotModified());
+
+        SurveyEntry changed = new SurveyEntry();
+        changed.setTitle("Etag Survey v2");
+        changed.setQuestionsJson("[\"Q1\"]");
+        mockMvc.perform(put("/api/surveys/" + surveyId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(changed)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/surveys/" + surveyId).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.title").value("Etag Survey v2"));
+        mockMvc.perform(get("/api/surveys/all").header("If-None-Match", allEtag))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/surveys/" + surveyId)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/surveys/" + surveyId)).andExpect(status().isNotFound());
+    }
+
+    // 18. Test the pre-rendered public survey document, plain and gzipped
+    @Test
+    public void testRenderSurveyServesPrerenderedJson() throws Exception {
+        StringBuilder questions = new StringBuilder("[");
+        for (int i = 0; i < 20; i++) {
+            questions.append(i == 0 ? "" : ",")
+                    .append("{\"id\":\"q").append(i).append("\",\"text\":\"How \\\"good\\\" was part ").append(i)
+                    .append("?\",\"options\":[\"Poor\",\"Fair\",\"Good\"]}");
+        }
+        long surveyId = createSurvey("Render Survey", questions.append("]").toString());
+
+        MvcResult plain = mockMvc.perform(get("/api/surveys/" + surveyId + "/render"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$.title").value("Render Survey"))
+                .andExpect(jsonPath("$.questions", hasSize(20)))
+                .andExpect(jsonPath("$.questions[3].text").value("How \"good\" was part 3?"))
+                .andExpect(jsonPath("$.creatorEmail").doesNotExist())
+                .andReturn();
+        String etag = plain.getResponse().getHeader("ETag");
+
+        MvcResult gzipped = mockMvc.perform(get("/api/surveys/" + surveyId + "/render")
+                .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+            assertEquals(plain.getResponse().getContentAsString(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertFalse(etag.equals(gzipped.getResponse().getHeader("ETag")));
+
+        mockMvc.perform(get("/api/surveys/" + surveyId + "/render").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        SurveyEntry changed = new SurveyEntry();
+        changed.setTitle("Render Survey v2");
+        changed.setQuestionsJson("[\"Only question\"]");
+        mockMvc.perform(put("/api/surveys/" + surveyId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(changed)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/surveys/" + surveyId + "/render").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Render Survey v2"))
+                .andExpect(jsonPath("$.questions[0]").value("Only question"));
+        mockMvc.perform(get("/api/surveys/999999/render")).andExpect(status().isNotFound());
+    }
+
+    // 19. Test NDJSON bulk import writes valid lines and reports the rest
+    @Test
+    public void testBulkImportNdjson() throws Exception {
+        String ndjson = String.join("\n",
+                "{\"type\":\"survey\",\"ref\":\"imp\",\"title\":\"Imported\",\"creatorEmail\":\"import@example.com\","
+                        + "\"questions\":[{\"id\":\"q1\",\"text\":\"Pick\",\"options\":[\"A\",\"B\"]}]}",
+                "{\"type\":\"response\",\"surveyRef\":\"imp\",\"answers\":{\"q1\":\"A\"},\"respondentEmail\":\"i1@example.com\"}",
+                "{\"type\":\"response\",\"surveyRef\":\"imp\",\"answersJson\":\"{\\\"q1\\\":\\\"B\\\"}\","
+                        + "\"submittedAt\":\"2024-03-01T09:30:00\"}",
+                "",
+                "{\"type\":\"response\",\"surveyRef\":\"imp\",\"answers\":{\"q1\":\"C\"}}",
+                "not json",
+                "{\"type\":\"response\",\"surveyRef\":\"missing\",\"answers\":{}}",
+                "{\"type\":\"response\",\"surveyRef\":\"imp\",\"answers\":{\"q1\":\"A\"}}");
+
+        String body = mockMvc.perform(post("/api/surveys/import")
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lines").value(8))
+                .andExpect(jsonPath("$.surveysImported").value(1))
+                .andExpect(jsonPath("$.responsesImported").value(3))
+                .andExpect(jsonPath("$.failedLines").value(3))
+                .andExpect(jsonPath("$.errors[*].line", contains(5, 6, 7)))
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(body.contains("'C' is not an option"));
+
+        String created = mockMvc.perform(get("/api/surveys/creator/import@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andReturn().getResponse().getContentAsString();
+        long surveyId = objectMapper.readTree(created).get(0).path("id").asLong();
+        mockMvc.perform(get("/api/surveys/" + surveyId + "/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responseCount").value(3))
+                .andExpect(jsonPath("$.questions[0].options.A").value(2));
+    }
+
+    // 20. Test normalized answers give per-question statistics and can be backfilled
+    @Test
+    public void testAnswerStatisticsFromNormalizedTable() throws Exception {
+        long surveyId = createSurvey("Normalized",
+                "[{\"id\":\"plan\",\"text\":\"Plan?\",\"type\":\"single\",\"options\":[\"Free\",\"Pro\"]},"
+                        + "{\"id\":\"score\",\"type\":\"rating\",\"min\":1,\"max\":5},"
+                        + "{\"id\":\"extras\",\"type\":\"multiple\",\"options\":[\"A\",\"B\"]},"
+                        + "{\"id\":\"note\",\"type\":\"text\"}]");
+        submitResponse(surveyId, "{\"plan\":\"Pro\",\"score\":5,\"extras\":[\"A\",\"B\"],\"note\":\"great\"}");
+        submitResponse(surveyId, "{\"plan\":\"Pro\",\"score\":3,\"extras\":[\"B\"]}");
+        submitResponse(surveyId, "{\"plan\":\"Free\"}");
+
+        String statistics = mockMvc.perform(get("/api/surveys/" + surveyId + "/answers/statistics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].questionId").value("plan"))
+                .andExpect(jsonPath("$[0].text").value("Plan?"))
+                .andExpect(jsonPath("$[0].answered").value(3))
+                .andExpect(jsonPath("$[0].options.Pro").value(2))
+                .andExpect(jsonPath("$[0].options.Free").value(1))
+                .andExpect(jsonPath("$[1].numeric.count").value(2))
+                .andExpect(jsonPath("$[1].numeric.mean").value(4.0))
+                .andExpect(jsonPath("$[1].numeric.min").value(3.0))
+                .andExpect(jsonPath("$[2].answered").value(2))
+                .andExpect(jsonPath("$[2].options.B").value(2))
+                .andExpect(jsonPath("$[3].textAnswers").value(1))
+                .andReturn().getResponse().getContentAsString();
+
+        // Rows lost (or never written) are rebuilt from answersJson
+        answerStore.deleteSurvey(surveyId);
+        mockMvc.perform(get("/api/surveys/" + surveyId + "/answers/statistics"))
+                .andExpect(jsonPath("$[0].answered").value(0));
+        assertTrue(answerStore.backfill() >= 3);
+        mockMvc.perform(get("/api/surveys/" + surveyId + "/answers/statistics"))
+                .andExpect(content().json(statistics, true));
+        mockMvc.perform(get("/api/surveys/999999/answers/statistics"))
+                .andExpect(status().isNotFound());
+    }
+
+    // 21. Test the creator dashboard follows creates, responses, updates and deletes
+    @Test
+    public void testCreatorDashboardIsMaintained() throws Exception {
+        String creator = "dashboard@example.com";
+        long first = createSurvey("First", "[\"Q1\",\"Q2\"]", creator);
+        long second = createSurvey("Second", "[\"Q1\"]", creator);
+        submitResponse(first, "[\"a\",\"b\"]");
+        submitResponse(first, "[\"c\",\"d\"]");
+        submitResponse(second, "[\"e\"]");
+
+        // One indexed read, however many surveys and responses
+        QueryBudget.assertAtMost(statementCounter, 1, () -> mockMvc.perform(get("/api/surveys/creator/" + creator + "/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalSurveys").value(2))
+                .andExpect(jsonPath("$.totalQuestions").value(3))
+                .andExpect(jsonPath("$.totalResponses").value(3))
+                .andExpect(jsonPath("$.surveys[0].surveyId").value(second))
+                .andExpect(jsonPath("$.surveys[1].responseCount").value(2))
+                .andExpect(jsonPath("$.surveys[1].lastResponseAt").isNotEmpty()));
+
+        SurveyEntry update = new SurveyEntry("Second, renamed", "", "[\"Q1\",\"Q2\",\"Q3\"]", creator);
+        update.setStatus(SurveyStatus.CLOSED);
+        mockMvc.perform(put("/api/surveys/" + second)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk());
+
+        // A missing row is rebuilt with its response count
+        dashboardRepository.deleteById(first);
+        assertTrue(dashboardService.backfill() >= 1);
+        mockMvc.perform(get("/api/surveys/creator/" + creator + "/dashboard"))
+                .andExpect(jsonPath("$.totalQuestions").value(5))
+                .andExpect(jsonPath("$.surveys[0].title").value("Second, renamed"))
+                .andExpect(jsonPath("$.surveys[0].status").value("CLOSED"))
+                .andExpect(jsonPath("$.surveys[0].responseCount").value(1))
+                .andExpect(jsonPath("$.surveys[1].responseCount").value(2));
+
+        mockMvc.perform(delete("/api/surveys/" + first)).andExpect(status().is2xxSuccessful());
+        mockMvc.perform(get("/api/surveys/creator/" + creator + "/dashboard"))
+                .andExpect(jsonPath("$.totalSurveys").value(1))
+                .andExpect(jsonPath("$.totalResponses").value(1));
+        mockMvc.perform(get("/api/surveys/creator/nobody@example.com/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.surveys.length()").value(0));
+    }
+
+    // 22. Test endpoint statement budgets do not grow with the number of responses
+    @Test
+    public void testEndpointStatementBudgets() throws Exception {
+        long surveyId = createSurvey("Budget", "[\"Q1\",\"Q2\"]");
+        List<SurveyResponse> responses = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            responses.add(new SurveyResponse(surveyId, "[\"a\",\"b\"]", "budget-" + i + "@example.com"));
+        }
+        String body = objectMapper.writeValueAsString(responses.get(0));
+        for (SurveyResponse response : responses) {
+            mockMvc.perform(post("/api/surveys/" + surveyId + "/respond")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(response)))
+                    .andExpect(status().isCreated());
+        }
+
+        QueryBudget.assertAtMost(statementCounter, 1, () -> mockMvc.perform(get("/api/surveys/" + surveyId + "/response-count"))
+                .andExpect(jsonPath("$.count").value(40)));
+        QueryBudget.assertAtMost(statementCounter, 1, () -> mockMvc.perform(get("/api/surveys/" + surveyId + "/summary"))
+                .andExpect(status().isOk()));
+        QueryBudget.assertAtMost(statementCounter, 1, () -> mockMvc.perform(get("/api/surveys/" + surveyId + "/responses"))
+                .andExpect(jsonPath("$.length()").value(40)));
+        QueryBudget.assertAtMost(statementCounter, 2, () -> mockMvc.perform(get("/api/surveys/" + surveyId + "/responses/export")
+                .param("format", "csv"))
+                .andExpect(status().isOk()));
+        // Per question, not per answer
+        QueryBudget.assertAtMost(statementCounter, 5, () -> mockMvc.perform(get("/api/surveys/" + surveyId + "/answers/statistics"))
+                .andExpect(status().isOk()));
+        // Response insert, aggregate and answer rows in batches, dashboard update
+        QueryBudget.assertAtMost(statementCounter, 8, () -> mockMvc.perform(post("/api/surveys/" + surveyId + "/respond")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isCreated()));
+        // Set-based deletes, not one per response
+        QueryBudget.assertAtMost(statementCounter, 8, () -> mockMvc.perform(delete("/api/surveys/" + surveyId))
+                .andExpect(status().isOk()));
+    }
+
+    // 23. Test response counts are served from memory and reconciled with the table
+    @Test
+    public void testResponseCountServedFromMemory() throws Exception {
+        long surveyId = createSurvey("Counted", "[\"Q1\"]");
+        for (int i = 0; i < 3; i++) {
+            submitResponse(surveyId, "[\"a\"]");
+        }
+
+        // Seeded by the first read, then no SQL at all
+        QueryBudget.assertAtMost(statementCounter, 1, () -> mockMvc.perform(get("/api/surveys/" + surveyId + "/response-count"))
+                .andExpect(jsonPath("$.count").value(3)));
+        submitResponse(surveyId, "[\"b\"]");
+        QueryBudget.assertAtMost(statementCounter, 0, () -> mockMvc.perform(get("/api/surveys/" + surveyId + "/response-count"))
+                .andExpect(jsonPath("$.count").value(4)));
+
+        // A row written behind the service's back is picked up by reconciliation
+        responseRepository.save(new SurveyResponse(surveyId, "[\"c\"]", "direct@example.com"));
+        mockMvc.perform(get("/api/surveys/" + surveyId + "/response-count"))
+                .andExpect(jsonPath("$.count").value(4));
+        assertTrue(responseCounts.reconcile() >= 1);
+        mockMvc.perform(get("/api/surveys/" + surveyId + "/response-count"))
+                .andExpect(jsonPath("$.count").value(5));
+
+        mockMvc.perform(delete("/api/surveys/" + surveyId)).andExpect(status().is2xxSuccessful());
+        mockMvc.perform(get("/api/surveys/" + surveyId + "/response-count"))
+                .andExpect(jsonPath("$.count").value(0));
+    }
+
+    // 24. Test the survey lifecycle: only ACTIVE surveys take responses, transitions are checked
+    @Test
+    public void testSurveyLifecycle() throws Exception {
+        SurveyEntry draft = new SurveyEntry("Lifecycle", "", "[\"Q1\"]", "lifecycle@example.com");
+        draft.setStatus(SurveyStatus.DRAFT);
+        String created = mockMvc.perform(post("/api/surveys/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(draft)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("DRAFT"))
+                .andReturn().getResponse().getContentAsString();
+        long surveyId = objectMapper.readTree(created).path("id").asLong();
+        String response = objectMapper.writeValueAsString(new SurveyResponse(surveyId, "[\"a\"]", "r@example.com"));
+
+        mockMvc.perform(post("/api/surveys/" + surveyId + "/respond")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(response))
+                .andExpect(status().isConflict());
+
+        changeStatus(surveyId, "active").andExpect(status().isOk());
+        mockMvc.perform(post("/api/surveys/" + surveyId + "/respond")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(response))
+                .andExpect(status().isCreated());
+
+        changeStatus(surveyId, "CLOSED").andExpect(status().isOk());
+        mockMvc.perform(post("/api/surveys/" + surveyId + "/respond")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(response))
+                .andExpect(status().isConflict());
+        // Closed surveys can be reopened or archived, never put back to draft
+        changeStatus(surveyId, "DRAFT").andExpect(status().isConflict());
+        changeStatus(surveyId, "BOGUS").andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/surveys/creator/lifecycle@example.com/status/closed/paginated"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(surveyId))
+                .andExpect(jsonPath("$.content[0].status").value("CLOSED"));
+        mockMvc.perform(get("/api/surveys/creator/lifecycle@example.com/status/ACTIVE/paginated"))
+                .andExpect(jsonPath("$.content.length()").value(0));
+        mockMvc.perform(get("/api/surveys/status/PENDING/paginated"))
+                .andExpect(status().isBadRequest());
+
+        SurveyEntry closed = new SurveyEntry("Born closed", "", "[\"Q1\"]", "lifecycle@example.com");
+        closed.setStatus(SurveyStatus.CLOSED);
+        mockMvc.perform(post("/api/surveys/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(closed)))
+                .andExpect(status().isBadRequest());
+    }
+
+    // 25. Test a schema compiled from an outdated copy of a survey never replaces the current one
+    @Test
+    public void testSchemaCacheFollowsSurveyVersion() throws Exception {
+        long surveyId = createSurvey("Versioned", "[\"Q1\"]");
+        SurveyEntry before = surveyRepository.findById(surveyId).orElseThrow();
+        mockMvc.perform(put("/api/surveys/" + surveyId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Versioned\",\"questionsJson\":\"[\\\"Q1\\\",\\\"Q2\\\"]\"}"))
+                .andExpect(status().isOk());
+
+        // A reader that loaded the survey before the update compiles the old questions for itself only
+        assertEquals(1, schemaService.getSchema(before).size());
+        assertEquals(2, schemaService.findSchema(surveyId).orElseThrow().size());
+        assertEquals(before.getVersion() + 1, schemaService.findSchema(surveyId).orElseThrow().getVersion());
+
+        mockMvc.perform(delete("/api/surveys/" + surveyId)).andExpect(status().isOk());
+        schemaService.getSchema(before);
+        assertTrue(schemaService.findSchema(surveyId).isEmpty());
+    }
+
+    private ResultActions changeStatus(long surveyId, String status) throws Exception {
+        return mockMvc.perform(put("/api/surveys/" + surveyId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Lifecycle\",\"questionsJson\":\"[\\\"Q1\\\"]\",\"status\":\"" + status + "\"}"));
+    }
+
+    private long createSurvey(String title, String questionsJson) throws Exception {
+        return createSurvey(title, questionsJson, null);
+    }
+
+    private long createSurvey(String title, String questionsJson, String creatorEmail) throws Exception {
+        SurveyEntry entry = new SurveyEntry();
+        entry.setTitle(title);
+        entry.setQuestionsJson(questionsJson);
+        entry.setCreatorEmail(creatorEmail);
+
+        String body = mockMvc.perform(post("/api/surveys/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(entry)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).path("id").asLong();
+    }
+
+    private void submitResponse(long surveyId, String answersJson) throws Exception {
+        SurveyResponse response = new SurveyResponse(surveyId, answersJson, "respondent@example.com");
+
+        mockMvc.perform(post("/api/surveys/" + surveyId + "/respond")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(response)))
+                .andExpect(status().isCreated());
+    }
 }
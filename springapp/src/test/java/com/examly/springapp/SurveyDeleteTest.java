@@ -0,0 +1,155 @@
+package com.examly.springapp;
+
+import com.examly.springapp.model.SurveyEntry;
+import com.examly.springapp.model.SurveyResponse;
+import com.examly.springapp.model.SurveyStatus;
+import com.examly.springapp.repository.QuestionAggregateRepository;
+import com.examly.springapp.repository.SurveyRepository;
+import com.examly.springapp.repository.SurveyResponseRepository;
+import com.examly.springapp.service.AnswerStoreService;
+import com.examly.springapp.service.SurveyService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"survey.delete.async-threshold=20", "survey.delete.chunk-size=7"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class SurveyDeleteTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SurveyService surveyService;
+
+    @Autowired
+    private SurveyRepository surveyRepository;
+
+    @Autowired
+    private SurveyResponseRepository responseRepository;
+
+    @Autowired
+    private QuestionAggregateRepository aggregateRepository;
+
+    @SpyBean
+    private AnswerStoreService answerStore;
+
+    @Test
+    public void testSmallSurveyIsDeletedInline() throws Exception {
+        Long surveyId = createSurveyWithResponses(5);
+
+        // An unknown mode is rejected rather than treated as sync
+        mockMvc.perform(delete("/api/surveys/" + surveyId).param("mode", "later")).andExpect(status().isBadRequest());
+        assertTrue(surveyRepository.existsById(surveyId));
+
+        mockMvc.perform(delete("/api/surveys/" + surveyId)).andExpect(status().isOk());
+
+        assertFalse(surveyRepository.existsById(surveyId));
+        assertEquals(0, responseRepository.countBySurveyId(surveyId));
+        assertTrue(aggregateRepository.findBySurveyId(surveyId).isEmpty());
+    }
+
+    @Test
+    public void testLargeSurveyIsPurgedInChunksInTheBackground() throws Exception {
+        Long surveyId = createSurveyWithResponses(30);
+
+        String body = mockMvc.perform(delete("/api/surveys/" + surveyId))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        String statusUrl = objectMapper.readTree(body).path("statusUrl").asText();
+
+        // Archived surveys stop taking responses while the purge runs
+        assertThrows(ResponseStatusException.class, () -> surveyService.validateResponse(surveyId, "[\"late\"]"));
+
+        JsonNode job = awaitJob(statusUrl);
+        assertEquals("COMPLETED", job.path("state").asText(), job.toString());
+        assertEquals(30, job.path("totalResponses").asLong());
+        assertEquals(30, job.path("deletedResponses").asLong());
+
+        assertFalse(surveyRepository.existsById(surveyId));
+        assertEquals(0, responseRepository.countBySurveyId(surveyId));
+        assertTrue(aggregateRepository.findBySurveyId(surveyId).isEmpty());
+        mockMvc.perform(get("/api/surveys/purge-jobs/unknown")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testFailedPurgeLeavesSurveyArchivedAndCanBeRetried() throws Exception {
+        Long surveyId = createSurveyWithResponses(30);
+        // First chunk goes through, the second fails
+        doCallRealMethod().doThrow(new DataAccessResourceFailureException("Connection lost"))
+                .when(answerStore).deleteUpTo(eq(surveyId), anyLong());
+
+        String body = mockMvc.perform(delete("/api/surveys/" + surveyId))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode job = awaitJob(objectMapper.readTree(body).path("statusUrl").asText());
+        assertEquals("FAILED", job.path("state").asText(), job.toString());
+        assertEquals("Connection lost", job.path("error").asText());
+        assertEquals(7, job.path("deletedResponses").asLong());
+
+        // Still there and archived, but no longer held by the purge
+        assertEquals(SurveyStatus.ARCHIVED, surveyRepository.findById(surveyId).orElseThrow().getStatus());
+        assertEquals(23, responseRepository.countBySurveyId(surveyId));
+        assertThrows(ResponseStatusException.class, () -> surveyService.validateResponse(surveyId, "[\"late\"]"));
+        assertDoesNotThrow(() -> surveyService.validateAnswers(surveyId, "[\"imported\"]"));
+
+        reset(answerStore);
+        body = mockMvc.perform(delete("/api/surveys/" + surveyId).param("mode", "async"))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        job = awaitJob(objectMapper.readTree(body).path("statusUrl").asText());
+        assertEquals("COMPLETED", job.path("state").asText(), job.toString());
+        assertEquals(23, job.path("deletedResponses").asLong());
+        assertFalse(surveyRepository.existsById(surveyId));
+    }
+
+    private JsonNode awaitJob(String statusUrl) throws Exception {
+        JsonNode job = null;
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            job = objectMapper.readTree(mockMvc.perform(get(statusUrl))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            if ("COMPLETED".equals(job.path("state").asText()) || "FAILED".equals(job.path("state").asText())) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        assertNotNull(job);
+        return job;
+    }
+
+    private Long createSurveyWithResponses(int count) {
+        SurveyEntry survey = surveyService.createSurvey(new SurveyEntry("Delete me", "", "[\"Q1\"]", "delete@example.com"));
+        List<SurveyResponse> responses = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            responses.add(new SurveyResponse(survey.getId(), "[\"a" + i + "\"]", "d" + i + "@example.com"));
+        }
+        surveyService.submitResponses(responses);
+        return survey.getId();
+    }
+}
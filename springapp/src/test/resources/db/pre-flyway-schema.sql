@@ -0,0 +1,7 @@
+-- Schema Hibernate's MySQL8Dialect generated (ddl-auto=update) for the entities in the
+-- commit before Flyway was introduced; existing databases look like this when baselined.
+
+create table app_user (id bigint not null auto_increment, created_at datetime(6), email varchar(255) not null, full_name varchar(255) not null, password_hash varchar(255) not null, roles varchar(255) not null, primary key (id)) engine=InnoDB;
+create table survey_entry (id bigint not null auto_increment, created_at datetime(6), creator_email varchar(255), description varchar(255), questions_json TEXT, responses_json TEXT, status varchar(255), title varchar(255), primary key (id)) engine=InnoDB;
+create table survey_response (id bigint not null auto_increment, answers_json TEXT, respondent_email varchar(255), status varchar(255), submitted_at datetime(6), survey_id bigint, primary key (id)) engine=InnoDB;
+alter table app_user add constraint UK_1j9d9a06i600gd43uu3km82jw unique (email);